@@ -0,0 +1,60 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Random;
+
+/**
+ * 基准测试用的场景构造工具，不创建窗口和渲染器
+ */
+final class BenchmarkScenes {
+    static final float DELTA_TIME = 1.0f / 60.0f;
+
+    private BenchmarkScenes() {
+    }
+
+    /**
+     * 创建带变换和物理组件的敌人
+     */
+    static GameObject enemy(Random random) {
+        GameObject enemy = new GameObject("Enemy");
+        enemy.addComponent(new TransformComponent(new Vector2(
+            random.nextFloat() * 800, random.nextFloat() * 600)));
+        PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.5f));
+        physics.setVelocity(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+        return enemy;
+    }
+
+    /**
+     * 创建玩家，放在第一个以便 GameLogic 按变换组件找到它
+     */
+    static GameObject player() {
+        GameObject player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(400, 300)));
+        player.addComponent(new PhysicsComponent(1.0f));
+        player.addComponent(new HealthComponent(5));
+        return player;
+    }
+
+    /**
+     * 创建包含玩家和指定数量敌人的场景，已初始化并完成一次更新（把待添加对象放入列表）
+     */
+    static Scene scene(int enemyCount, boolean parallel, long seed) {
+        Random random = new Random(seed);
+        Scene scene = new Scene("Benchmark");
+        scene.setParallelUpdate(parallel);
+        scene.setLogUpdateStats(false);
+        scene.addGameObject(player());
+        for (int i = 0; i < enemyCount; i++) {
+            scene.addGameObject(enemy(random));
+        }
+        scene.initialize();
+        scene.update(0);
+        return scene;
+    }
+}
@@ -0,0 +1,49 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.GameLogic;
+import com.gameengine.input.InputManager;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameLogic.checkCollisions 在不同敌人数量下的耗时
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int enemyCount;
+
+    private Scene scene;
+    private GameLogic gameLogic;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scene = BenchmarkScenes.scene(enemyCount, false, 7L);
+        gameLogic = new GameLogic(scene, new InputManager());
+    }
+
+    @Benchmark
+    public Scene checkCollisions() {
+        // 场景不推进，碰撞结果每次相同（玩家受伤后处于无敌时间，不会重复打印）
+        gameLogic.checkCollisions();
+        return scene;
+    }
+}
@@ -0,0 +1,62 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.FlowField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流场：目标换格子时重新计算一次的耗时，以及每个追踪者取方向的耗时
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowFieldBenchmark {
+    @Param({"20", "10"})
+    public float cellSize;
+
+    private FlowField field;
+    private Vector2[] targets;
+    private Vector2 chaser;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        field = new FlowField(800, 600, cellSize);
+        field.setBlockedRect(300, 100, 40, 400, true);
+        field.setBlockedRect(500, 0, 40, 250, true);
+        targets = new Vector2[] {new Vector2(650, 300), new Vector2(650 + cellSize, 300)};
+        chaser = new Vector2(100, 300);
+        field.update(targets[0]);
+    }
+
+    /**
+     * 目标每次都换到相邻格子，强制重新计算
+     */
+    @Benchmark
+    public FlowField recompute() {
+        next ^= 1;
+        field.update(targets[next]);
+        return field;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Vector2 sample() {
+        return field.sample(chaser, targets[next]);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.AttackComponent;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameObject.getComponent 的查找开销：第一个组件、最后一个组件和不存在的组件
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameObjectBenchmark {
+    private GameObject player;
+    private GameObject enemy;
+
+    @Setup
+    public void setUp() {
+        // 与 GameScene 中玩家的组件顺序一致
+        player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(400, 300)));
+        player.addComponent(new PhysicsComponent(1.0f));
+        player.addComponent(new RenderComponent());
+        player.addComponent(new HealthComponent(5));
+        player.addComponent(new AttackComponent(50, 0.5f, 1));
+
+        enemy = new GameObject("Enemy");
+        enemy.addComponent(new TransformComponent(new Vector2(100, 100)));
+        enemy.addComponent(new PhysicsComponent(0.5f));
+    }
+
+    @Benchmark
+    public TransformComponent getFirstComponent() {
+        return player.getComponent(TransformComponent.class);
+    }
+
+    @Benchmark
+    public AttackComponent getLastComponent() {
+        return player.getComponent(AttackComponent.class);
+    }
+
+    @Benchmark
+    public HealthComponent getMissingComponent() {
+        return enemy.getComponent(HealthComponent.class);
+    }
+
+    @Benchmark
+    public boolean hasComponent() {
+        return enemy.hasComponent(PhysicsComponent.class);
+    }
+}
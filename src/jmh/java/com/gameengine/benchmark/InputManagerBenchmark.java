@@ -0,0 +1,68 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.input.InputManager;
+import com.gameengine.math.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputManager 每帧的查询，使用独立的输入上下文
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputManagerBenchmark {
+    private InputManager input;
+
+    @Setup
+    public void setUp() {
+        input = new InputManager();
+        input.onKeyPressed(87); // W
+        input.onKeyPressed(68); // D
+        input.onMouseMoved(320, 240);
+    }
+
+    @Benchmark
+    public boolean isKeyPressedHit() {
+        return input.isKeyPressed(87);
+    }
+
+    @Benchmark
+    public boolean isKeyPressedMiss() {
+        return input.isKeyPressed(83);
+    }
+
+    @Benchmark
+    public int movementKeys() {
+        // GameLogic.handlePlayerInput 每帧的 8 次查询
+        int mask = 0;
+        if (input.isKeyPressed(87) || input.isKeyPressed(265)) mask |= 1;
+        if (input.isKeyPressed(83) || input.isKeyPressed(264)) mask |= 2;
+        if (input.isKeyPressed(65) || input.isKeyPressed(263)) mask |= 4;
+        if (input.isKeyPressed(68) || input.isKeyPressed(262)) mask |= 8;
+        return mask;
+    }
+
+    @Benchmark
+    public boolean isKeyJustPressed() {
+        return input.isKeyJustPressed(32);
+    }
+
+    @Benchmark
+    public Vector2 getMousePosition() {
+        return input.getMousePosition();
+    }
+}
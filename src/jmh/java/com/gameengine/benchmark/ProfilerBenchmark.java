@@ -0,0 +1,83 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.util.Profiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profiler.begin/end 每个作用域的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfilerBenchmark {
+    @Param({"true", "false"})
+    public boolean allocationTracking;
+
+    private Profiler profiler;
+    private Profiler disabledProfiler;
+    private int section;
+    private int nested;
+    private int calls;
+
+    @Setup
+    public void setUp() {
+        profiler = new Profiler();
+        profiler.setAllocationTracking(allocationTracking);
+        section = profiler.section("Bench");
+        nested = profiler.section("Bench.Nested");
+        disabledProfiler = new Profiler();
+        disabledProfiler.section("Bench");
+        disabledProfiler.setEnabled(false);
+    }
+
+    @Benchmark
+    public void beginEndById() {
+        profiler.begin(section);
+        profiler.end(section);
+        endFrameEvery64();
+    }
+
+    @Benchmark
+    public void beginEndByName() {
+        profiler.begin("Bench");
+        profiler.end("Bench");
+        endFrameEvery64();
+    }
+
+    @Benchmark
+    public void nestedScopes() {
+        profiler.begin(section);
+        profiler.begin(nested);
+        profiler.end(nested);
+        profiler.end(section);
+        endFrameEvery64();
+    }
+
+    @Benchmark
+    public void disabled() {
+        disabledProfiler.begin(section);
+        disabledProfiler.end(section);
+    }
+
+    private void endFrameEvery64() {
+        // 模拟每帧若干个作用域，避免单帧数据无限增长
+        if ((++calls & 63) == 0) {
+            profiler.endFrame();
+        }
+    }
+}
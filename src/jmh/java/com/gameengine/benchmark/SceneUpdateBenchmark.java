@@ -0,0 +1,47 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scene.update 在不同对象数量下的耗时（并行和顺序两种模式）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SceneUpdateBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int objectCount;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private Scene scene;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scene = BenchmarkScenes.scene(objectCount, parallel, 42L);
+    }
+
+    @Benchmark
+    public Scene update() {
+        scene.update(BenchmarkScenes.DELTA_TIME);
+        return scene;
+    }
+}
@@ -0,0 +1,79 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Prefab;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一波敌人的生成耗时：逐个创建并加入场景 vs Scene.spawnBatch，包括加入场景的那一帧更新
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpawnBenchmark {
+    @Param({"1000", "10000"})
+    public int waveSize;
+
+    private Prefab prefab;
+    private Scene scene;
+
+    @Setup(Level.Trial)
+    public void setUpPrefab() {
+        prefab = new Prefab("Enemy")
+            .with(TransformComponent::new)
+            .with(() -> new RenderComponent("src/resource/snake-left.png", new Vector2(40, 40)))
+            .with(() -> {
+                PhysicsComponent physics = new PhysicsComponent(0.5f);
+                physics.setFriction(0.98f);
+                return physics;
+            });
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpScene() {
+        scene = new Scene("Spawn");
+        scene.setParallelUpdate(false);
+        scene.setLogUpdateStats(false);
+        scene.initialize();
+    }
+
+    @Benchmark
+    public Scene addOneByOne() {
+        for (int i = 0; i < waveSize; i++) {
+            GameObject enemy = prefab.instantiate();
+            enemy.getComponent(TransformComponent.class).setPosition(new Vector2(i % 800, i % 600));
+            scene.addGameObject(enemy);
+        }
+        scene.update(0);
+        return scene;
+    }
+
+    @Benchmark
+    public Scene spawnBatch() {
+        scene.spawnBatch(prefab, waveSize,
+            (enemy, i) -> enemy.getComponent(TransformComponent.class).setPosition(new Vector2(i % 800, i % 600)));
+        scene.update(0);
+        return scene;
+    }
+}
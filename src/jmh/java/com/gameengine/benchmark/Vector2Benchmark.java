@@ -0,0 +1,74 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.math.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector2 常用运算，每次运算都会创建新对象
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Vector2Benchmark {
+    private Vector2 a;
+    private Vector2 b;
+    private float scalar;
+
+    @Setup
+    public void setUp() {
+        a = new Vector2(3.5f, -1.25f);
+        b = new Vector2(-7.0f, 2.5f);
+        scalar = 0.016f;
+    }
+
+    @Benchmark
+    public Vector2 add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Vector2 subtract() {
+        return a.subtract(b);
+    }
+
+    @Benchmark
+    public Vector2 multiply() {
+        return a.multiply(scalar);
+    }
+
+    @Benchmark
+    public Vector2 normalize() {
+        return a.normalize();
+    }
+
+    @Benchmark
+    public float distance() {
+        return a.distance(b);
+    }
+
+    @Benchmark
+    public float dot() {
+        return a.dot(b);
+    }
+
+    @Benchmark
+    public Vector2 physicsStep() {
+        // PhysicsComponent.update 中的速度和位移计算
+        Vector2 velocity = b.add(a.multiply(scalar)).multiply(0.9f);
+        return velocity.multiply(scalar);
+    }
+}
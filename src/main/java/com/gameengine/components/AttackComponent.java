@@ -58,6 +58,15 @@ public class AttackComponent extends Component {
         // Visual feedback is handled by the owner GameObject
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        cooldownTimer = 0.0f;
+        isAttacking = false;
+        attackTimer = 0.0f;
+        attackDirection = new Vector2(0, -1); // getAttackDirection 返回的是内部对象，不能原地修改
+    }
+
     /**
      * 尝试执行攻击
      * @param direction 攻击方向
@@ -185,6 +194,30 @@ public class AttackComponent extends Component {
         return attackDirection;
     }
 
+    /**
+     * 获取剩余冷却时间
+     */
+    public float getCooldownTimer() {
+        return cooldownTimer;
+    }
+
+    /**
+     * 获取剩余攻击动画时间
+     */
+    public float getAttackTimer() {
+        return attackTimer;
+    }
+
+    /**
+     * 直接恢复攻击状态（用于回放关键帧）
+     */
+    public void restoreState(boolean attacking, float attackTimer, float cooldownTimer, Vector2 attackDirection) {
+        this.isAttacking = attacking;
+        this.attackTimer = attackTimer;
+        this.cooldownTimer = cooldownTimer;
+        this.attackDirection = new Vector2(attackDirection);
+    }
+
     /**
      * 获取攻击持续时间
      */
@@ -1,6 +1,7 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.scene.SceneSnapshot;
 
 /**
  * 健康组件 - 管理游戏对象的生命值
@@ -44,6 +45,25 @@ public class HealthComponent extends Component {
         // HealthComponent doesn't render anything
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        currentHealth = maxHealth;
+        invincible = false;
+        invincibilityTimer = 0.0f;
+        isDead = false;
+    }
+
+    @Override
+    public void captureSnapshotState(SceneSnapshot.EntityState state) {
+        state.putInt("HealthComponent.max", maxHealth);
+    }
+
+    @Override
+    public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+        maxHealth = state.getInt("HealthComponent.max", maxHealth);
+    }
+
     /**
      * 受到伤害
      * @param damage 伤害值
@@ -142,6 +162,23 @@ public class HealthComponent extends Component {
         this.invincibilityDuration = duration;
     }
 
+    /**
+     * 获取剩余无敌时间
+     */
+    public float getInvincibilityTimer() {
+        return invincibilityTimer;
+    }
+
+    /**
+     * 直接恢复生命状态（用于回放关键帧）
+     */
+    public void restoreState(int currentHealth, boolean invincible, float invincibilityTimer) {
+        this.currentHealth = currentHealth;
+        this.isDead = currentHealth <= 0;
+        this.invincible = invincible;
+        this.invincibilityTimer = invincibilityTimer;
+    }
+
     /**
      * 复活
      */
@@ -3,6 +3,7 @@ package com.gameengine.components;
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.SceneSnapshot;
 
 /**
  * 物理组件，处理物理运动
@@ -65,6 +66,31 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         // 物理组件不直接渲染
     }
     
+    @Override
+    public void reset() {
+        super.reset();
+        velocity.x = 0;
+        velocity.y = 0;
+        acceleration.x = 0;
+        acceleration.y = 0;
+    }
+
+    /**
+     * 保存本帧物理更新之后才施加、尚未生效的力
+     */
+    @Override
+    public void captureSnapshotState(SceneSnapshot.EntityState state) {
+        if (acceleration.x != 0 || acceleration.y != 0) {
+            state.putFloat("PhysicsComponent.ax", acceleration.x);
+            state.putFloat("PhysicsComponent.ay", acceleration.y);
+        }
+    }
+
+    @Override
+    public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+        acceleration = new Vector2(state.getFloat("PhysicsComponent.ax", 0), state.getFloat("PhysicsComponent.ay", 0));
+    }
+
     /**
      * 应用力
      */
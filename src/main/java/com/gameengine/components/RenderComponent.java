@@ -9,6 +9,10 @@ import com.gameengine.math.Vector2;
  * 渲染组件，负责对象的渲染
  */
 public class RenderComponent extends Component<RenderComponent> {
+    /** 完整精度下圆形的分段数 */
+    public static final int CIRCLE_SEGMENTS = 16;
+    private static final int MIN_CIRCLE_SEGMENTS = 6;
+
     private IRenderer renderer;
     private RenderType renderType;
     private Vector2 size;
@@ -95,8 +99,9 @@ public class RenderComponent extends Component<RenderComponent> {
                 );
                 break;
             case CIRCLE:
+                int segments = Math.max(MIN_CIRCLE_SEGMENTS, Math.round(CIRCLE_SEGMENTS * renderer.getCircleDetail()));
                 renderer.drawCircle(position.x + size.x/2, position.y + size.y/2,
-                                  size.x/2, 16, color.r, color.g, color.b, color.a);
+                                  size.x/2, segments, color.r, color.g, color.b, color.a);
                 break;
             case LINE:
                 renderer.drawLine(position.x, position.y,
@@ -109,6 +114,12 @@ public class RenderComponent extends Component<RenderComponent> {
         }
     }
     
+    @Override
+    public void reset() {
+        super.reset();
+        visible = true;
+    }
+
     /**
      * 设置渲染器
      */
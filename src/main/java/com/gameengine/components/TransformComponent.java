@@ -44,6 +44,16 @@ public class TransformComponent extends Component<TransformComponent> {
         // 变换组件不直接渲染
     }
     
+    @Override
+    public void reset() {
+        super.reset();
+        position.x = 0;
+        position.y = 0;
+        scale.x = 1;
+        scale.y = 1;
+        rotation = 0;
+    }
+
     /**
      * 移动到指定位置
      */
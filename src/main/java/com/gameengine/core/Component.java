@@ -1,5 +1,7 @@
 package com.gameengine.core;
 
+import com.gameengine.scene.SceneSnapshot;
+
 /**
  * 组件基类，使用泛型设计
  * @param <T> 组件类型
@@ -36,6 +38,25 @@ public abstract class Component<T extends Component<T>> {
     public void destroy() {
         this.enabled = false;
     }
+
+    /**
+     * 对象从对象池取出时调用，恢复为可以重新使用的状态
+     */
+    public void reset() {
+        this.enabled = true;
+    }
+    
+    /**
+     * 捕获关键帧时保存组件的私有状态，键以组件名为前缀，例如 "PhysicsComponent.ax"
+     */
+    public void captureSnapshotState(SceneSnapshot.EntityState state) {
+    }
+
+    /**
+     * 从关键帧恢复组件的私有状态
+     */
+    public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+    }
     
     /**
      * 获取组件类型
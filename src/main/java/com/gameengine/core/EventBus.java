@@ -0,0 +1,114 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 按类型分组的事件总线：publish() 只把事件追加到本类型的待处理批次，
+ * dispatch() 时每个类型的监听器一次收到整批事件（按发布顺序）。
+ * 没有监听器的类型直接丢弃。只能在游戏线程中使用
+ */
+public class EventBus {
+    private static final class Channel<E> {
+        final List<Consumer<? super List<E>>> listeners = new ArrayList<>();
+        List<E> pending = new ArrayList<>();
+        List<E> dispatching = new ArrayList<>();
+    }
+
+    private final Map<Class<?>, Channel<?>> channels = new IdentityHashMap<>();
+    private final List<Channel<?>> order = new ArrayList<>(); // 按订阅顺序分发各类型
+    private boolean hasPending;
+    private long publishedCount;
+    private long dispatchedCount;
+
+    /**
+     * 订阅某类型的事件，每次分发时收到本批次的只读列表（列表在回调结束后复用，不要保存）
+     */
+    public <E> void subscribe(Class<E> type, Consumer<? super List<E>> listener) {
+        channel(type).listeners.add(listener);
+    }
+
+    /**
+     * 订阅某类型的事件，每个事件调用一次
+     */
+    public <E> void subscribeEach(Class<E> type, Consumer<? super E> listener) {
+        subscribe(type, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                listener.accept(batch.get(i));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> Channel<E> channel(Class<E> type) {
+        Channel<E> channel = (Channel<E>) channels.get(type);
+        if (channel == null) {
+            channel = new Channel<>();
+            channels.put(type, channel);
+            order.add(channel);
+        }
+        return channel;
+    }
+
+    /**
+     * 发布事件，下一次 dispatch() 时送达
+     */
+    @SuppressWarnings("unchecked")
+    public <E> void publish(E event) {
+        Channel<E> channel = (Channel<E>) channels.get(event.getClass());
+        if (channel == null) return;
+        channel.pending.add(event);
+        hasPending = true;
+        publishedCount++;
+    }
+
+    /**
+     * 把各类型的待处理批次交给监听器，通常每帧调用一次。
+     * 监听器在回调中发布的事件进入下一批
+     */
+    public void dispatch() {
+        if (!hasPending) return;
+        hasPending = false;
+        for (int i = 0; i < order.size(); i++) {
+            dispatch(order.get(i));
+        }
+    }
+
+    private <E> void dispatch(Channel<E> channel) {
+        if (channel.pending.isEmpty()) return;
+        List<E> batch = channel.pending;
+        channel.pending = channel.dispatching;
+        channel.dispatching = batch;
+        List<E> view = Collections.unmodifiableList(batch);
+        try {
+            for (int i = 0; i < channel.listeners.size(); i++) {
+                channel.listeners.get(i).accept(view);
+            }
+        } finally {
+            dispatchedCount += batch.size();
+            batch.clear();
+        }
+    }
+
+    /**
+     * 丢弃尚未分发的事件（场景清空或从快照恢复时）
+     */
+    public void clearPending() {
+        for (Channel<?> channel : order) {
+            channel.pending.clear();
+        }
+        hasPending = false;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+}
@@ -0,0 +1,169 @@
+package com.gameengine.core;
+
+import com.gameengine.util.Logger;
+
+import java.util.Arrays;
+
+/**
+ * 帧率控制：按固定的截止时间表推进（第 n 帧在 起点 + n * 帧间隔 开始），
+ * 先粗略 sleep 到截止时间前的自旋阈值，再用 Thread.onSpinWait 自旋到截止时间，
+ * 避免 Thread.sleep 在 Linux 上最多约 1ms 的超时误差
+ */
+public class FramePacer {
+    private static final Logger log = Logger.getInstance();
+    private static final int ERROR_WINDOW = 256;
+
+    private volatile long periodNanos;
+    private long spinThresholdNanos = 2_000_000L;
+    private long nextDeadline;
+    private boolean started;
+
+    // 统计：醒来时间相对截止时间的误差（正数为迟到）
+    private final long[] errors = new long[ERROR_WINDOW];
+    private final long[] sorted = new long[ERROR_WINDOW];
+    private int errorCount;
+    private int errorIndex;
+    private long pacedFrames;
+    private long missedFrames;
+    private long maxErrorNanos;
+    private long totalAbsErrorNanos;
+
+    public FramePacer(float targetFPS) {
+        setTargetFPS(targetFPS);
+    }
+
+    /**
+     * 修改目标帧率，下一帧起生效
+     */
+    public void setTargetFPS(float fps) {
+        if (fps <= 0) {
+            log.error("无效的目标帧率: " + fps);
+            return;
+        }
+        this.periodNanos = (long) (1_000_000_000.0 / fps);
+    }
+
+    public float getTargetFPS() {
+        return (float) (1_000_000_000.0 / periodNanos);
+    }
+
+    /**
+     * 距截止时间小于该值时改为自旋等待，应大于 sleep 的典型超时误差
+     */
+    public void setSpinThresholdNanos(long spinThresholdNanos) {
+        this.spinThresholdNanos = Math.max(0, spinThresholdNanos);
+    }
+
+    public long getSpinThresholdNanos() {
+        return spinThresholdNanos;
+    }
+
+    /**
+     * 以当前时间作为时间表起点
+     */
+    public void start() {
+        nextDeadline = System.nanoTime() + periodNanos;
+        started = true;
+    }
+
+    /**
+     * 等待到下一帧的截止时间。帧耗时超过一整帧间隔时不追赶，从当前时间重新排表
+     *
+     * @return 等待时线程被中断则返回 false
+     */
+    public boolean waitForNextFrame() {
+        if (!started) {
+            start();
+        }
+        long period = periodNanos;
+        long deadline = nextDeadline;
+        long now = System.nanoTime();
+
+        if (now - deadline >= period) {
+            // 已错过下一帧，丢弃积压的帧而不是连续快速补帧
+            missedFrames++;
+            nextDeadline = now + period;
+            return true;
+        }
+
+        long remaining = deadline - now;
+        while (remaining > spinThresholdNanos) {
+            long sleepNanos = remaining - spinThresholdNanos;
+            try {
+                Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        while ((now = System.nanoTime()) < deadline) {
+            Thread.onSpinWait();
+        }
+
+        record(now - deadline);
+        nextDeadline = deadline + period;
+        return true;
+    }
+
+    private void record(long errorNanos) {
+        errors[errorIndex] = errorNanos;
+        errorIndex = (errorIndex + 1) % ERROR_WINDOW;
+        if (errorCount < ERROR_WINDOW) errorCount++;
+        pacedFrames++;
+        long abs = Math.abs(errorNanos);
+        totalAbsErrorNanos += abs;
+        if (abs > maxErrorNanos) maxErrorNanos = abs;
+    }
+
+    /**
+     * 最近若干帧醒来误差的百分位（毫秒）
+     */
+    public double getErrorPercentileMs(double percentile) {
+        if (errorCount == 0) return 0;
+        System.arraycopy(errors, 0, sorted, 0, errorCount);
+        Arrays.sort(sorted, 0, errorCount);
+        int index = Math.min(errorCount - 1, Math.max(0, (int) Math.ceil(percentile * errorCount) - 1));
+        return sorted[index] / 1_000_000.0;
+    }
+
+    /**
+     * 启动以来的平均绝对误差（毫秒）
+     */
+    public double getMeanErrorMs() {
+        return pacedFrames == 0 ? 0 : totalAbsErrorNanos / 1_000_000.0 / pacedFrames;
+    }
+
+    public double getMaxErrorMs() {
+        return maxErrorNanos / 1_000_000.0;
+    }
+
+    /**
+     * 按时间表等待过的帧数
+     */
+    public long getPacedFrames() {
+        return pacedFrames;
+    }
+
+    /**
+     * 帧耗时超过一整帧间隔、重新排表的次数
+     */
+    public long getMissedFrames() {
+        return missedFrames;
+    }
+
+    public void resetStats() {
+        errorCount = 0;
+        errorIndex = 0;
+        pacedFrames = 0;
+        missedFrames = 0;
+        maxErrorNanos = 0;
+        totalAbsErrorNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("目标 %.1f FPS, 误差 p50 %.3fms p99 %.3fms 最大 %.3fms, 错过 %d 帧",
+            getTargetFPS(), getErrorPercentileMs(0.50), getErrorPercentileMs(0.99), getMaxErrorMs(), missedFrames);
+    }
+}
@@ -0,0 +1,188 @@
+package com.gameengine.core;
+
+import com.gameengine.scene.Scene;
+import com.gameengine.util.Profiler;
+import com.gameengine.util.Logger;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帧预算监视器：帧耗时超过阈值时，把该帧各阶段耗时、实体数量和 GC 活动写入卡顿日志
+ */
+public class FrameWatchdog {
+    private static final Logger log = Logger.getInstance();
+    private static final long SHUTDOWN_TIMEOUT_MS = 500;
+    private final Profiler profiler;
+    private final List<GarbageCollectorMXBean> gcBeans;
+    private final long[] gcCounts;
+    private final long[] gcTimes;
+    private final long[] gcCountDeltas;
+    private final long[] gcTimeDeltas;
+    private final ExecutorService writer;
+
+    private float thresholdMs;
+    private int warmupFrames = 60; // 忽略启动时JIT编译造成的慢帧
+    private String logPath = "hitches.log";
+    private boolean enabled = true;
+    private long frameCount;
+    private volatile int hitchCount;
+    private volatile float lastHitchMs;
+
+    public FrameWatchdog(Profiler profiler, float thresholdMs) {
+        this.profiler = profiler;
+        this.thresholdMs = thresholdMs;
+        this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.gcCounts = new long[gcBeans.size()];
+        this.gcTimes = new long[gcBeans.size()];
+        this.gcCountDeltas = new long[gcBeans.size()];
+        this.gcTimeDeltas = new long[gcBeans.size()];
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HitchLog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampleGc();
+    }
+
+    /**
+     * 每帧结束时调用，frameNanos 为本帧更新和渲染的耗时
+     */
+    public void frameFinished(long frameNanos, Scene scene) {
+        if (!enabled || writer.isShutdown()) return;
+        frameCount++;
+        sampleGc();
+        if (frameCount <= warmupFrames) return;
+
+        float frameMs = frameNanos / 1_000_000.0f;
+        if (frameMs <= thresholdMs) return;
+
+        hitchCount++;
+        lastHitchMs = frameMs;
+        String report = buildReport(frameMs, scene);
+        writer.submit(() -> append(report));
+    }
+
+    private void sampleGc() {
+        for (int i = 0; i < gcBeans.size(); i++) {
+            GarbageCollectorMXBean bean = gcBeans.get(i);
+            long count = bean.getCollectionCount();
+            long time = bean.getCollectionTime();
+            gcCountDeltas[i] = count - gcCounts[i];
+            gcTimeDeltas[i] = time - gcTimes[i];
+            gcCounts[i] = count;
+            gcTimes[i] = time;
+        }
+    }
+
+    private String buildReport(float frameMs, Scene scene) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[%1$tF %1$tT.%1$tL] 卡顿 #%2$d 帧 %3$d: %4$.2fms（预算 %5$.2fms）%n",
+            System.currentTimeMillis(), hitchCount, profiler.getFrameNumber(), frameMs, thresholdMs));
+
+        sb.append("  GC:");
+        boolean anyGc = false;
+        for (int i = 0; i < gcBeans.size(); i++) {
+            if (gcCountDeltas[i] > 0) {
+                sb.append(String.format(" %s %d 次 %dms;", gcBeans.get(i).getName(), gcCountDeltas[i], gcTimeDeltas[i]));
+                anyGc = true;
+            }
+        }
+        sb.append(anyGc ? "\n" : " 无\n");
+        if (profiler.isAllocationTracking()) {
+            sb.append(String.format("  分配: %.1fKB（平均 %.1fKB/帧）%n",
+                profiler.getLastFrameAllocatedBytes() / 1024.0, profiler.getAvgFrameAllocatedBytes() / 1024.0));
+        }
+
+        if (scene != null) {
+            Map<String, Integer> counts = new TreeMap<>();
+            List<GameObject> objects = scene.getGameObjects();
+            for (GameObject obj : objects) {
+                counts.merge(obj.getName(), 1, Integer::sum);
+            }
+            sb.append("  实体: ").append(objects.size()).append(' ').append(counts).append('\n');
+        }
+
+        long currentThread = -1;
+        for (Profiler.ThreadScope scope : profiler.getThreadBreakdown()) {
+            if (scope.threadId != currentThread) {
+                currentThread = scope.threadId;
+                sb.append(String.format("  [%s #%d]%n", scope.threadName, scope.threadId));
+            }
+            Profiler.ProfileData stats = profiler.getStats(scope.section);
+            sb.append(String.format("  %" + (2 + scope.depth * 2) + "s%-20s: %.3fms x%d %.1fKB%s%n", "", scope.section,
+                scope.getMs(), scope.count, scope.allocatedBytes / 1024.0,
+                stats != null ? String.format("（p50 %.3fms）", stats.getP50Ms()) : ""));
+        }
+        return sb.toString();
+    }
+
+    private void append(String report) {
+        try (Writer out = new FileWriter(logPath, true)) {
+            out.write(report);
+        } catch (IOException e) {
+            log.error("写入卡顿日志失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 停止写日志线程，最多等待 SHUTDOWN_TIMEOUT_MS 让已提交的报告写完；之后不再记录卡顿
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("卡顿日志未在 " + SHUTDOWN_TIMEOUT_MS + "ms 内写完，剩余报告被丢弃");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void setThresholdMs(float thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    public float getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public void setWarmupFrames(int warmupFrames) {
+        this.warmupFrames = warmupFrames;
+    }
+
+    public void setLogPath(String logPath) {
+        this.logPath = logPath;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 超过预算的帧数
+     */
+    public int getHitchCount() {
+        return hitchCount;
+    }
+
+    /**
+     * 最近一次卡顿的帧耗时（毫秒）
+     */
+    public float getLastHitchMs() {
+        return lastHitchMs;
+    }
+}
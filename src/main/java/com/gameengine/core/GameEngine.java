@@ -4,13 +4,20 @@ import com.gameengine.graphics.IRenderer;
 import com.gameengine.graphics.RenderBackend;
 import com.gameengine.graphics.RendererFactory;
 import com.gameengine.input.InputManager;
+import com.gameengine.metrics.MetricsCollector;
+import com.gameengine.metrics.MetricsServer;
 import com.gameengine.scene.Scene;
+import com.gameengine.scene.SceneSnapshot;
 import com.gameengine.util.Profiler;
+import com.gameengine.util.Logger;
+
+import java.util.Random;
 
 /**
  * 游戏引擎
  */
 public class GameEngine {
+    private static final Logger log = Logger.getInstance();
     private IRenderer renderer;
     private InputManager inputManager;
     private Scene currentScene;
@@ -23,15 +30,37 @@ public class GameEngine {
     private int frameCount;
     private long fpsTimer;
     private Profiler profiler;
+    private FrameWatchdog watchdog;
+    private FramePacer framePacer;
+    private QualityController qualityController;
+    private MetricsCollector metricsCollector;
+    private MetricsServer metricsServer;
+    private boolean deterministic;
+    private float tickRate;
+    private long randomSeed;
+    private int lastSeekSteps;
+    // 分析器区域ID
+    private final int secFrame, secDeltaTime, secSceneUpdate, secInput, secPollEvents;
+    private final int secRender, secBeginFrame, secSceneRender, secEndFrame;
+    private static final int TRACE_FRAMES = 300;
+    private String lastRecordingPath = "replay.dat"; // T键回放最近一次保存的录制
 
     public GameEngine(int width, int height, String title) {
         this(width, height, title, RenderBackend.GPU);
     }
 
     public GameEngine(int width, int height, String title, RenderBackend backend) {
+        this(width, height, title, backend, InputManager.getInstance(), Profiler.getInstance());
+    }
+
+    /**
+     * 使用独立的输入和分析器上下文创建引擎，多个引擎可以在同一进程中并行运行
+     */
+    public GameEngine(int width, int height, String title, RenderBackend backend,
+                      InputManager inputManager, Profiler profiler) {
         this.title = title;
-        this.renderer = RendererFactory.createRenderer(backend, width, height, title);
-        this.inputManager = InputManager.getInstance();
+        this.inputManager = inputManager;
+        this.renderer = RendererFactory.createRenderer(backend, width, height, title, inputManager);
         this.running = false;
         this.targetFPS = 120.0f;
         this.deltaTime = 0.0f;
@@ -39,7 +68,22 @@ public class GameEngine {
         this.currentFPS = 0.0f;
         this.frameCount = 0;
         this.fpsTimer = System.currentTimeMillis();
-        this.profiler = Profiler.getInstance();
+        this.profiler = profiler;
+        this.secFrame = profiler.section("Frame");
+        this.secDeltaTime = profiler.section("DeltaTime");
+        this.secSceneUpdate = profiler.section("SceneUpdate");
+        this.secInput = profiler.section("Input");
+        this.secPollEvents = profiler.section("PollEvents");
+        this.secRender = profiler.section("Render");
+        this.secBeginFrame = profiler.section("BeginFrame");
+        this.secSceneRender = profiler.section("SceneRender");
+        this.secEndFrame = profiler.section("EndFrame");
+        this.watchdog = new FrameWatchdog(profiler, 1000.0f / targetFPS);
+        this.framePacer = new FramePacer(targetFPS);
+        this.qualityController = new QualityController(renderer, targetFPS);
+        this.deterministic = false;
+        this.tickRate = targetFPS;
+        this.randomSeed = System.nanoTime();
     }
     
     /**
@@ -53,79 +97,119 @@ public class GameEngine {
      * 运行游戏引擎
      */
     public void run() {
-        if (!initialize()) {
-            System.err.println("游戏引擎初始化失败");
+        if (!start()) {
             return;
         }
 
-        running = true;
-
-        // 初始化当前场景
-        if (currentScene != null) {
-            currentScene.initialize();
-            System.out.println("场景已初始化: " + currentScene.getName());
-        } else {
-            System.err.println("警告: 没有设置场景!");
-        }
-
         // 主游戏循环（在主线程中运行）
-        long targetFrameTime = (long) (1000000000.0 / targetFPS);
-        System.out.println("开始游戏循环...");
+        log.info("开始游戏循环...");
+        framePacer.start();
 
         while (running && !renderer.shouldClose()) {
-            long frameStart = System.nanoTime();
-
-            update();
-            render();
+            step();
 
             // 帧率控制
-            long frameTime = System.nanoTime() - frameStart;
-            long sleepTime = targetFrameTime - frameTime;
-
-            if (sleepTime > 0) {
-                try {
-                    Thread.sleep(sleepTime / 1000000, (int)(sleepTime % 1000000));
-                } catch (InterruptedException e) {
-                    break;
-                }
+            if (!framePacer.waitForNextFrame()) {
+                break;
             }
         }
 
-        System.out.println("游戏循环结束 - running: " + running + ", shouldClose: " + renderer.shouldClose());
+        log.info("游戏循环结束 - running: " + running + ", shouldClose: " + renderer.shouldClose());
+        log.info("帧率控制: " + framePacer);
 
         // 清理资源
         cleanup();
     }
     
+    /**
+     * 初始化引擎和当前场景，之后可以通过 step() 手动推进
+     */
+    public boolean start() {
+        if (!initialize()) {
+            log.error("游戏引擎初始化失败");
+            return false;
+        }
+
+        running = true;
+
+        // 初始化当前场景
+        if (currentScene != null) {
+            currentScene.initialize();
+            log.info("场景已初始化: " + currentScene.getName());
+        } else {
+            log.warn("警告: 没有设置场景!");
+        }
+        return true;
+    }
+
+    /**
+     * 执行一帧（更新 + 渲染），不做帧率控制
+     */
+    public void step() {
+        long frameStart = System.nanoTime();
+        update();
+        render();
+        long frameNanos = System.nanoTime() - frameStart;
+        watchdog.frameFinished(frameNanos, currentScene);
+        qualityController.frameFinished(frameNanos);
+        if (metricsCollector != null) {
+            metricsCollector.frameFinished();
+        }
+    }
+
+    /**
+     * 在本地端口启动统计端点（HTTP /metrics 和 JMX），端口为0时由系统分配
+     */
+    public boolean startMetrics(int port) {
+        if (metricsServer != null) {
+            return true;
+        }
+        metricsCollector = new MetricsCollector(this);
+        MetricsServer server = new MetricsServer(metricsCollector);
+        if (!server.start(port, title)) {
+            metricsCollector = null;
+            return false;
+        }
+        metricsServer = server;
+        return true;
+    }
+
     /**
      * 更新游戏逻辑
      */
     private void update() {
-        profiler.begin("Frame");
+        profiler.begin(secFrame);
 
         // 计算时间间隔
-        profiler.begin("DeltaTime");
+        profiler.begin(secDeltaTime);
         long currentTime = System.nanoTime();
-        deltaTime = (currentTime - lastTime) / 1_000_000_000.0f; // 转换为秒
+        if (deterministic) {
+            deltaTime = 1.0f / tickRate; // 确定性模式使用固定步长
+        } else {
+            deltaTime = (currentTime - lastTime) / 1_000_000_000.0f; // 转换为秒
+        }
         lastTime = currentTime;
-        profiler.end("DeltaTime");
+        profiler.end(secDeltaTime);
 
         // 更新场景
-        profiler.begin("SceneUpdate");
+        if (currentScene != null) {
+            profiler.setEntityCount(currentScene.getObjectCount());
+        }
+        profiler.begin(secSceneUpdate);
         if (currentScene != null) {
             currentScene.update(deltaTime);
         }
-        profiler.end("SceneUpdate");
+        profiler.end(secSceneUpdate);
 
         // 更新输入
-        profiler.begin("Input");
+        profiler.begin(secInput);
         inputManager.update();
-        profiler.end("Input");
+        profiler.end(secInput);
 
         // 处理事件
-        profiler.begin("PollEvents");
+        profiler.begin(secPollEvents);
         renderer.pollEvents();
-        profiler.end("PollEvents");
+        profiler.end(secPollEvents);
 
         // 处理录制/回放控制
         handleReplayControls();
@@ -140,66 +224,205 @@ public class GameEngine {
             running = false;
         }
 
-        profiler.end("Frame");
+        profiler.end(secFrame);
     }
 
     /**
      * 处理录制/回放控制按键
      */
     private void handleReplayControls() {
+        // 结束当前模拟帧，并推进回放
+        if (deterministic) {
+            finishTick();
+        } else if (inputManager.getMode() == InputManager.InputMode.REPLAYING) {
+            inputManager.updateReplay();
+        }
+
+        // 录制中定期保存场景关键帧
+        if (currentScene != null && inputManager.isKeyframeDue()) {
+            inputManager.recordKeyframe(currentScene.captureSnapshot());
+        }
+
         // R键: 开启/关闭录制
-        if (inputManager.isKeyJustPressed(82)) { // R键
+        if (inputManager.isControlKeyJustPressed(82)) { // R键
             if (inputManager.getMode() == InputManager.InputMode.RECORDING) {
                 inputManager.stopRecording();
-                inputManager.saveRecording("replay.dat");
+                lastRecordingPath = String.format("replay_%1$tY%1$tm%1$td_%1$tH%1$tM%1$tS.dat", System.currentTimeMillis());
+                inputManager.saveRecording(lastRecordingPath, currentScene != null ? currentScene.getScore() : -1);
             } else if (inputManager.getMode() == InputManager.InputMode.NORMAL) {
-                inputManager.startRecording();
+                startRecording();
             }
         }
 
-        // T键: 开始回放
-        if (inputManager.isKeyJustPressed(84)) { // T键
+        // O键: 捕获性能追踪
+        if (inputManager.isControlKeyJustPressed(79)) { // O键
+            captureTrace(TRACE_FRAMES);
+        }
+
+        // T键: 回放最近一次录制
+        if (inputManager.isControlKeyJustPressed(84)) { // T键
             if (inputManager.getMode() == InputManager.InputMode.NORMAL) {
-                inputManager.loadRecording("replay.dat");
-                inputManager.startReplaying();
+                startReplay(lastRecordingPath);
             }
         }
 
         // Y键: 停止回放
-        if (inputManager.isKeyJustPressed(89)) { // Y键
+        if (inputManager.isControlKeyJustPressed(89)) { // Y键
             if (inputManager.getMode() == InputManager.InputMode.REPLAYING) {
                 inputManager.stopReplaying();
             }
         }
 
-        // 如果正在回放，更新回放状态
+        // [ / ] 键: 回放中后退/前进10秒
         if (inputManager.getMode() == InputManager.InputMode.REPLAYING) {
-            inputManager.updateReplay();
+            if (inputManager.isControlKeyJustPressed(91)) { // [键
+                seekReplay(inputManager.getCurrentReplayTime() - 10000);
+            } else if (inputManager.isControlKeyJustPressed(93)) { // ]键
+                seekReplay(inputManager.getCurrentReplayTime() + 10000);
+            }
+        }
+        inputManager.clearControlKeys();
+    }
+
+    /**
+     * 结束一个确定性模拟帧：记录或校验状态哈希，然后在帧边界应用输入
+     */
+    private void finishTick() {
+        if (currentScene != null && (inputManager.isRecording() || inputManager.isReplaying())) {
+            long hash = currentScene.computeStateHash();
+            if (inputManager.isRecording()) {
+                inputManager.recordStateHash(hash);
+            } else if (!inputManager.verifyStateHash(hash)) {
+                log.error("回放状态不一致: 第 " + inputManager.getDivergenceTick() + " 帧");
+            }
+        }
+        inputManager.endTick();
+    }
+
+    /**
+     * 开始录制，并立即保存起始关键帧
+     */
+    public void startRecording() {
+        inputManager.startRecording(randomSeed);
+        if (currentScene != null) {
+            inputManager.recordKeyframe(currentScene.captureSnapshot());
+        }
+    }
+
+    /**
+     * 加载录制并在当前场景中开始回放
+     */
+    public void startReplay(String filepath) {
+        startReplay(filepath, null);
+    }
+
+    /**
+     * 加载录制并在指定场景中开始回放，录制包含关键帧时先恢复起始状态
+     */
+    public void startReplay(String filepath, Scene scene) {
+        if (!inputManager.loadRecording(filepath)) return;
+
+        // 确定性录制需要相同的步长和随机数种子
+        if (inputManager.isDeterministicRecording()) {
+            randomSeed = inputManager.getRecordedSeed();
+            applyDeterministic(true, inputManager.getRecordedTickRate());
+        } else {
+            applyDeterministic(false, targetFPS);
+        }
+
+        if (scene != null) {
+            setScene(scene);
+        }
+        inputManager.startReplaying();
+        if (!inputManager.isReplaying() || currentScene == null) return;
+
+        SceneSnapshot snapshot = inputManager.rewindToKeyframe(0);
+        if (snapshot != null) {
+            currentScene.restoreSnapshot(snapshot);
         }
     }
+
+    /**
+     * 跳转到回放的指定时间（毫秒）：恢复最近的关键帧后以固定步长快速模拟到目标时间
+     */
+    public boolean seekReplay(long targetTime) {
+        if (!inputManager.isReplaying() || currentScene == null) return false;
+
+        targetTime = Math.max(0, Math.min(targetTime, inputManager.getRecordingDuration()));
+        long currentTime = inputManager.getCurrentReplayTime();
+        long keyframeTime = inputManager.findKeyframeTime(targetTime);
+
+        long fromTime;
+        if (keyframeTime >= 0 && (keyframeTime >= currentTime || targetTime < currentTime)) {
+            currentScene.restoreSnapshot(inputManager.rewindToKeyframe(targetTime));
+            fromTime = keyframeTime;
+        } else if (targetTime >= currentTime) {
+            fromTime = currentTime;
+        } else {
+            log.info("没有可用的关键帧，无法后退到 " + targetTime + "ms");
+            return false;
+        }
+
+        // 快速模拟，不渲染
+        long seekStart = System.nanoTime();
+        int steps = 0;
+        if (deterministic) {
+            float step = 1.0f / tickRate;
+            while (inputManager.isReplaying() && inputManager.getCurrentReplayTime() < targetTime) {
+                currentScene.update(step);
+                inputManager.update();
+                finishTick();
+                steps++;
+            }
+        } else {
+            float step = 1.0f / targetFPS;
+            double replayTime = fromTime;
+            while (replayTime < targetTime) {
+                replayTime += step * 1000.0;
+                inputManager.advanceReplay((long) replayTime);
+                currentScene.update(step);
+                inputManager.update();
+                steps++;
+            }
+            inputManager.setReplayTime(targetTime);
+        }
+        lastTime = System.nanoTime();
+        lastSeekSteps = steps;
+
+        log.info("回放跳转到 %.1fs（从 %.1fs 模拟 %d 帧，耗时 %.1fms）%n",
+            targetTime / 1000.0, fromTime / 1000.0, steps, (lastTime - seekStart) / 1_000_000.0);
+        return true;
+    }
+
+    /**
+     * 最近一次 seekReplay 实际模拟的帧数
+     */
+    public int getLastSeekSteps() {
+        return lastSeekSteps;
+    }
     
     /**
      * 渲染游戏
      */
     private void render() {
-        profiler.begin("Render");
+        profiler.begin(secRender);
 
-        profiler.begin("BeginFrame");
+        profiler.begin(secBeginFrame);
         renderer.beginFrame();
-        profiler.end("BeginFrame");
+        profiler.end(secBeginFrame);
 
         // 渲染场景
-        profiler.begin("SceneRender");
+        profiler.begin(secSceneRender);
         if (currentScene != null) {
             currentScene.render();
         }
-        profiler.end("SceneRender");
+        profiler.end(secSceneRender);
 
-        profiler.begin("EndFrame");
+        profiler.begin(secEndFrame);
         renderer.endFrame();
-        profiler.end("EndFrame");
+        profiler.end(secEndFrame);
 
-        profiler.end("Render");
+        profiler.end(secRender);
 
         // 计算FPS
         frameCount++;
@@ -214,11 +437,25 @@ public class GameEngine {
         profiler.endFrame();
     }
     
+    /**
+     * 捕获接下来若干帧的性能追踪，保存为可在 chrome://tracing 或 Perfetto 中打开的 JSON
+     */
+    public boolean captureTrace(int frames) {
+        String path = String.format("trace_%1$tY%1$tm%1$td_%1$tH%1$tM%1$tS.json", System.currentTimeMillis());
+        return profiler.startTraceCapture(frames, path);
+    }
+
     /**
      * 设置当前场景
      */
     public void setScene(Scene scene) {
         this.currentScene = scene;
+        if (scene != null) {
+            scene.setParallelUpdate(!deterministic);
+            scene.getAIScheduler().setLocked(deterministic);
+            scene.setProfiler(profiler);
+            scene.setQualityController(qualityController);
+        }
         if (scene != null && running) {
             scene.initialize();
         }
@@ -241,9 +478,15 @@ public class GameEngine {
     /**
      * 清理资源
      */
-    private void cleanup() {
+    public void cleanup() {
         if (currentScene != null) {
             currentScene.clear();
+            currentScene.shutdown();
+        }
+        watchdog.shutdown();
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
         }
         renderer.cleanup();
     }
@@ -274,6 +517,9 @@ public class GameEngine {
      */
     public void setTargetFPS(float fps) {
         this.targetFPS = fps;
+        watchdog.setThresholdMs(1000.0f / fps);
+        framePacer.setTargetFPS(fps);
+        qualityController.setTargetFPS(fps);
     }
     
     /**
@@ -290,6 +536,50 @@ public class GameEngine {
         return running;
     }
 
+    /**
+     * 开启/关闭确定性模拟：固定步长（当前目标帧率）、按帧录制输入、按顺序更新对象
+     */
+    public void setDeterministic(boolean deterministic) {
+        applyDeterministic(deterministic, targetFPS);
+    }
+
+    private void applyDeterministic(boolean deterministic, float tickRate) {
+        this.deterministic = deterministic;
+        this.tickRate = tickRate;
+        inputManager.setDeterministic(deterministic, tickRate);
+        qualityController.setSimulationLocked(deterministic);
+        if (currentScene != null) {
+            currentScene.setParallelUpdate(!deterministic);
+            currentScene.getAIScheduler().setLocked(deterministic);
+        }
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 获取确定性模式下的模拟帧率
+     */
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * 创建场景使用的随机数生成器（种子会写入录制）
+     */
+    public Random createRandom() {
+        return new Random(randomSeed);
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
     /**
      * 获取当前FPS
      */
@@ -297,6 +587,34 @@ public class GameEngine {
         return currentFPS;
     }
 
+    /**
+     * 获取帧预算监视器
+     */
+    public FrameWatchdog getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * 获取帧率控制器
+     */
+    public FramePacer getFramePacer() {
+        return framePacer;
+    }
+
+    /**
+     * 获取画质自适应控制器
+     */
+    public QualityController getQualityController() {
+        return qualityController;
+    }
+
+    /**
+     * 获取统计采集器，未启动统计端点时为 null
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
     /**
      * 获取性能分析器
      */
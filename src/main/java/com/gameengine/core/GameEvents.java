@@ -0,0 +1,70 @@
+package com.gameengine.core;
+
+import com.gameengine.math.Vector2;
+
+/**
+ * 通过 EventBus 发布的游戏事件
+ */
+public final class GameEvents {
+    private GameEvents() { }
+
+    /** 击杀来源 */
+    public enum KillCause { MELEE, BULLET }
+
+    /** 伤害来源 */
+    public enum DamageCause { CONTACT, BULLET }
+
+    /**
+     * 敌人被击杀（对象已标记移除）
+     */
+    public static final class EnemyKilled {
+        public final GameObject enemy;
+        public final KillCause cause;
+
+        public EnemyKilled(GameObject enemy, KillCause cause) {
+            this.enemy = enemy;
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * 玩家受到伤害（生命值已经扣除）
+     */
+    public static final class PlayerDamaged {
+        public final GameObject player;
+        public final DamageCause cause;
+        public final int remainingHealth;
+
+        public PlayerDamaged(GameObject player, DamageCause cause, int remainingHealth) {
+            this.player = player;
+            this.cause = cause;
+            this.remainingHealth = remainingHealth;
+        }
+    }
+
+    /**
+     * 玩家发射子弹
+     */
+    public static final class ShotFired {
+        public final GameObject bullet;
+        public final Vector2 direction;
+
+        public ShotFired(GameObject bullet, Vector2 direction) {
+            this.bullet = bullet;
+            this.direction = direction;
+        }
+    }
+
+    /**
+     * 玩家发动近战攻击
+     */
+    public static final class MeleeAttack {
+        public final GameObject player;
+        public final Vector2 direction;
+
+        public MeleeAttack(GameObject player, Vector2 direction) {
+            this.player = player;
+            this.direction = direction;
+        }
+    }
+}
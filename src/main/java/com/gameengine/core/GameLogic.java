@@ -10,6 +10,7 @@ import com.gameengine.core.GameObject;
 import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
+import com.gameengine.util.Logger;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -18,23 +19,50 @@ import java.util.ArrayList;
  * 游戏逻辑类，处理具体的游戏规则
  */
 public class GameLogic {
+    private static final Logger log = Logger.getInstance();
     private Scene scene;
     private InputManager inputManager;
     private float lastShotTime;
+    private final GameObjectPool bulletPool;
+    private final GameObjectPool enemyBulletPool;
     
     public GameLogic(Scene scene) {
+        this(scene, InputManager.getInstance());
+    }
+
+    public GameLogic(Scene scene, InputManager inputManager) {
         this.scene = scene;
-        this.inputManager = InputManager.getInstance();
+        this.inputManager = inputManager;
+        this.bulletPool = new GameObjectPool("Bullet",
+            bulletPrefab("Bullet", new RenderComponent.Color(1.0f, 1.0f, 0.0f, 1.0f))::instantiate);
+        this.enemyBulletPool = new GameObjectPool("EnemyBullet",
+            bulletPrefab("EnemyBullet", new RenderComponent.Color(1.0f, 0.0f, 0.0f, 1.0f))::instantiate);
+        subscribeLogging(scene.getEventBus());
+    }
+
+    /**
+     * 事件分发时写入异步日志，不在碰撞检测中打印
+     */
+    private static void subscribeLogging(EventBus events) {
+        events.subscribeEach(GameEvents.MeleeAttack.class, event -> log.info("玩家发动近战攻击！"));
+        events.subscribeEach(GameEvents.ShotFired.class, event -> log.info("玩家发射子弹！"));
+        events.subscribeEach(GameEvents.EnemyKilled.class, event -> {
+            if (event.cause == GameEvents.KillCause.MELEE) {
+                log.info("近战攻击击中敌人！");
+            }
+        });
+        events.subscribeEach(GameEvents.PlayerDamaged.class, event -> log.info(
+            event.cause == GameEvents.DamageCause.BULLET ? "玩家被子弹击中！剩余生命: %d" : "玩家受伤！剩余生命: %d",
+            event.remainingHealth));
     }
     
     /**
      * 处理玩家输入
      */
     public void handlePlayerInput() {
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return;
+        GameObject player = scene.findGameObjectByName("Player");
+        if (player == null) return;
         
-        GameObject player = players.get(0);
         TransformComponent transform = player.getComponent(TransformComponent.class);
         PhysicsComponent physics = player.getComponent(PhysicsComponent.class);
         
@@ -74,7 +102,7 @@ public class GameLogic {
                 // 尝试执行攻击
                 boolean attacked = attack.tryAttack(attackDirection);
                 if (attacked) {
-                    System.out.println("玩家发动近战攻击！");
+                    scene.getEventBus().publish(new GameEvents.MeleeAttack(player, attackDirection));
                 }
             }
         }
@@ -96,28 +124,13 @@ public class GameLogic {
                 if (bulletDirection.magnitude() > 0) {
                     bulletDirection = bulletDirection.normalize();
 
-                    // 创建子弹
-                    GameObject bullet = new GameObject("Bullet");
-
-                    // 子弹位置从玩家位置开始
-                    TransformComponent transform_bullet = bullet.addComponent(new TransformComponent(playerPos));
-
-                    PhysicsComponent physics_bullet = bullet.addComponent(new PhysicsComponent(0.1f));
-                    physics_bullet.setFriction(1.0f);
-                    physics_bullet.setVelocity(bulletDirection.multiply(400));
-
-                    RenderComponent render = bullet.addComponent(
-                        new RenderComponent(
-                            RenderComponent.RenderType.CIRCLE,
-                            new Vector2(6, 6),
-                            new RenderComponent.Color(1.0f, 1.0f, 0.0f, 1.0f)
-                        )
-                    );
-                    // 设置渲染器
-                    render.setRenderer(scene.getRenderer());
+                    // 创建子弹，位置从玩家位置开始
+                    GameObject bullet = createBullet();
+                    bullet.getComponent(TransformComponent.class).setPosition(playerPos);
+                    bullet.getComponent(PhysicsComponent.class).setVelocity(bulletDirection.multiply(400));
 
                     this.scene.addGameObject(bullet);
-                    System.out.println("玩家发射子弹！");
+                    scene.getEventBus().publish(new GameEvents.ShotFired(bullet, bulletDirection));
                 }
             }
         }
@@ -137,6 +150,57 @@ public class GameLogic {
         transform.setPosition(pos);
     }
     
+    /**
+     * 从对象池取出玩家子弹（未加入场景），离开屏幕或命中后由场景回收
+     */
+    public GameObject createBullet() {
+        return bulletPool.acquire();
+    }
+
+    /**
+     * 从对象池取出敌人子弹（未加入场景）
+     */
+    public GameObject createEnemyBullet() {
+        return enemyBulletPool.acquire();
+    }
+
+    public GameObjectPool getBulletPool() {
+        return bulletPool;
+    }
+
+    public GameObjectPool getEnemyBulletPool() {
+        return enemyBulletPool;
+    }
+
+    /**
+     * 子弹模板：小质量、无摩擦的圆形
+     */
+    private Prefab bulletPrefab(String name, RenderComponent.Color color) {
+        return new Prefab(name)
+            .with(TransformComponent::new)
+            .with(() -> {
+                PhysicsComponent physics = new PhysicsComponent(0.1f);
+                physics.setFriction(1.0f);
+                return physics;
+            })
+            .with(() -> {
+                RenderComponent render = new RenderComponent(RenderComponent.RenderType.CIRCLE, new Vector2(6, 6), color);
+                render.setRenderer(scene.getRenderer());
+                return render;
+            });
+    }
+
+    /**
+     * 获取/设置上次射击时间（用于回放关键帧）
+     */
+    public float getLastShotTime() {
+        return lastShotTime;
+    }
+
+    public void setLastShotTime(float lastShotTime) {
+        this.lastShotTime = lastShotTime;
+    }
+
     /**
      * 更新物理系统
      */
@@ -177,14 +241,15 @@ public class GameLogic {
     }
     
     /**
-     * 检查碰撞
+     * 检查碰撞，击杀和受伤以事件发布，结束时把本帧的事件整批分发给计分和日志
      */
     public void checkCollisions() {
-        // 直接查找玩家对象
-        List<GameObject> players = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (players.isEmpty()) return;
+        // 按名称索引查找玩家和各类对象，不复制场景列表
+        GameObject player = scene.findGameObjectByName("Player");
+        if (player == null) return;
+        List<GameObject> enemies = scene.getGameObjectsByName("Enemy");
+        EventBus events = scene.getEventBus();
 
-        GameObject player = players.get(0);
         TransformComponent playerTransform = player.getComponent(TransformComponent.class);
         HealthComponent playerHealth = player.getComponent(HealthComponent.class);
         AttackComponent playerAttack = player.getComponent(AttackComponent.class);
@@ -194,15 +259,12 @@ public class GameLogic {
         if (playerAttack != null && playerAttack.isAttacking()) {
             List<GameObject> enemiesToRemove = new ArrayList<>();
 
-            for (GameObject obj : scene.getGameObjects()) {
-                if (obj.getName().equals("Enemy")) {
-                    TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
-                    if (enemyTransform != null) {
-                        // 检查敌人是否在攻击范围内
-                        if (playerAttack.isInAttackRange(enemyTransform.getPosition(), playerTransform.getPosition())) {
-                            enemiesToRemove.add(obj);
-                            System.out.println("近战攻击击中敌人！");
-                        }
+            for (GameObject obj : enemies) {
+                TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
+                if (enemyTransform != null) {
+                    // 检查敌人是否在攻击范围内
+                    if (playerAttack.isInAttackRange(enemyTransform.getPosition(), playerTransform.getPosition())) {
+                        enemiesToRemove.add(obj);
                     }
                 }
             }
@@ -210,50 +272,45 @@ public class GameLogic {
             // 移除被击中的敌人
             for (GameObject enemy : enemiesToRemove) {
                 scene.removeGameObject(enemy);
-                scene.onEnemyKilled();
+                events.publish(new GameEvents.EnemyKilled(enemy, GameEvents.KillCause.MELEE));
             }
         }
 
         // 检查玩家与敌人的碰撞
-        for (GameObject obj : scene.getGameObjects()) {
-            if (obj.getName().equals("Enemy")) {
-                TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
-                if (enemyTransform != null) {
-                    float distance = playerTransform.getPosition().distance(enemyTransform.getPosition());
-                    if (distance < 15) {
-                        // 碰撞！玩家受伤
-                        if (playerHealth != null) {
-                            boolean damaged = playerHealth.takeDamage(1);
-                            if (damaged) {
-                                System.out.println("玩家受伤！剩余生命: " + playerHealth.getCurrentHealth());
-                            }
-                        } else {
-                            // 如果没有健康组件，使用旧的即死逻辑
-                            scene.onEnemyLimitExceeded();
+        for (GameObject obj : enemies) {
+            TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
+            if (enemyTransform != null) {
+                float distance = playerTransform.getPosition().distance(enemyTransform.getPosition());
+                if (distance < 15) {
+                    // 碰撞！玩家受伤
+                    if (playerHealth != null) {
+                        boolean damaged = playerHealth.takeDamage(1);
+                        if (damaged) {
+                            events.publish(new GameEvents.PlayerDamaged(player, GameEvents.DamageCause.CONTACT,
+                                playerHealth.getCurrentHealth()));
                         }
-                        break;
+                    } else {
+                        // 如果没有健康组件，使用旧的即死逻辑
+                        scene.onEnemyLimitExceeded();
                     }
+                    break;
                 }
             }
         }
 
         // 检查子弹与敌人的碰撞（保留子弹系统以备后用）
-        for (GameObject bul : scene.getGameObjects()) {
-            if (bul.getName().equals("Bullet")) {
-                TransformComponent bulletTransform = bul.getComponent(TransformComponent.class);
-                if (bulletTransform != null) {
-                    for (GameObject obj : scene.getGameObjects()) {
-                        if (obj.getName().equals("Enemy")) {
-                            TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
-                            if (enemyTransform != null) {
-                                float distance = bulletTransform.getPosition().distance(enemyTransform.getPosition());
-                                if (distance < 25) {
-                                    this.scene.removeGameObject(bul);
-                                    this.scene.removeGameObject(obj);
-                                    this.scene.onEnemyKilled();
-                                    break;
-                                }
-                            }
+        for (GameObject bul : scene.getGameObjectsByName("Bullet")) {
+            TransformComponent bulletTransform = bul.getComponent(TransformComponent.class);
+            if (bulletTransform != null) {
+                for (GameObject obj : enemies) {
+                    TransformComponent enemyTransform = obj.getComponent(TransformComponent.class);
+                    if (enemyTransform != null) {
+                        float distance = bulletTransform.getPosition().distance(enemyTransform.getPosition());
+                        if (distance < 25) {
+                            this.scene.removeGameObject(bul);
+                            this.scene.removeGameObject(obj);
+                            events.publish(new GameEvents.EnemyKilled(obj, GameEvents.KillCause.BULLET));
+                            break;
                         }
                     }
                 }
@@ -261,30 +318,31 @@ public class GameLogic {
         }
 
         // 检查敌人子弹与玩家的碰撞
-        for (GameObject bul : scene.getGameObjects()) {
-            if (bul.getName().equals("EnemyBullet")) {
-                TransformComponent bulletTransform = bul.getComponent(TransformComponent.class);
-                if (bulletTransform != null && playerTransform != null) {
-                    float distance = bulletTransform.getPosition().distance(playerTransform.getPosition());
-                    if (distance < 20) {
-                        this.scene.removeGameObject(bul);
-                        if (playerHealth != null) {
-                            boolean damaged = playerHealth.takeDamage(1);
-                            if (damaged) {
-                                System.out.println("玩家被子弹击中！剩余生命: " + playerHealth.getCurrentHealth());
-                            }
+        for (GameObject bul : scene.getGameObjectsByName("EnemyBullet")) {
+            TransformComponent bulletTransform = bul.getComponent(TransformComponent.class);
+            if (bulletTransform != null && playerTransform != null) {
+                float distance = bulletTransform.getPosition().distance(playerTransform.getPosition());
+                if (distance < 20) {
+                    this.scene.removeGameObject(bul);
+                    if (playerHealth != null) {
+                        boolean damaged = playerHealth.takeDamage(1);
+                        if (damaged) {
+                            events.publish(new GameEvents.PlayerDamaged(player, GameEvents.DamageCause.BULLET,
+                                playerHealth.getCurrentHealth()));
                         }
-                        break;
                     }
+                    break;
                 }
             }
         }
 
+
+        events.dispatch();
     }
 
     public void checkEnemyCount() {
         if (this.scene.getEnemyCount() > 100) {
-            System.out.println("游戏结束");
+            log.info("游戏结束");
             scene.onEnemyLimitExceeded();
         }
     }
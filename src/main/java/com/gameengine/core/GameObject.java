@@ -1,6 +1,7 @@
 package com.gameengine.core;
 
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.SceneSnapshot;
 import java.util.*;
 
 /**
@@ -10,6 +11,10 @@ public class GameObject {
     protected boolean active;
     protected String name;
     protected final List<Component<?>> components;
+    GameObjectPool pool; // 所属对象池，null 表示不回收
+    boolean inPool;
+    private List<Component<?>> parked; // 池中对象销毁后暂存的组件
+    private Set<String> tags;
     
     public GameObject() {
         this.active = true;
@@ -52,8 +57,61 @@ public class GameObject {
         for (Component<?> component : components) {
             component.destroy();
         }
+        // 池中对象暂存组件，取出时调用 reset 恢复，销毁后的表现与普通对象相同
+        if (pool != null) {
+            if (parked == null) {
+                parked = new ArrayList<>(components.size());
+            }
+            for (int i = 0; i < components.size(); i++) {
+                parked.add(components.get(i));
+            }
+        }
         components.clear();
     }
+
+    /**
+     * 恢复为可以重新使用的状态，由对象池在取出时调用
+     */
+    public void reset() {
+        this.active = true;
+        if (parked != null) {
+            if (components.isEmpty()) {
+                for (int i = 0; i < parked.size(); i++) {
+                    components.add(parked.get(i));
+                }
+            }
+            parked.clear();
+        }
+        for (Component<?> component : components) {
+            component.reset();
+        }
+    }
+
+    /**
+     * 捕获关键帧时调用，保存位置、速度、生命和攻击以外的状态（缓存的决策、私有计时器等）。
+     * 默认保存各组件的状态，子类重写时应调用 super
+     */
+    public void captureSnapshotState(SceneSnapshot.EntityState state) {
+        for (Component<?> component : components) {
+            component.captureSnapshotState(state);
+        }
+    }
+
+    /**
+     * 从关键帧恢复时调用，在标准状态写回之后、加入场景之前
+     */
+    public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+        for (Component<?> component : components) {
+            component.restoreSnapshotState(state);
+        }
+    }
+
+    /**
+     * 所属对象池，不是从对象池创建时返回 null
+     */
+    public GameObjectPool getPool() {
+        return pool;
+    }
     
     /**
      * 添加组件
@@ -65,6 +123,21 @@ public class GameObject {
         return component;
     }
     
+    /**
+     * 由 Prefab 添加类型未知的组件
+     */
+    void attach(Component<?> component) {
+        component.setOwner(this);
+        components.add(component);
+        component.initialize();
+    }
+
+    void ensureComponentCapacity(int capacity) {
+        if (components instanceof ArrayList) {
+            ((ArrayList<Component<?>>) components).ensureCapacity(capacity);
+        }
+    }
+
     /**
      * 获取组件
      */
@@ -126,7 +199,28 @@ public class GameObject {
         return name;
     }
     
+    /**
+     * 设置名称。场景按加入时的名称建立索引，加入场景后不要再修改
+     */
     public void setName(String name) {
         this.name = name;
     }
+
+    /**
+     * 添加标签，场景按加入时的标签建立索引，应在加入场景前添加
+     */
+    public void addTag(String tag) {
+        if (tags == null) {
+            tags = new HashSet<>(2);
+        }
+        tags.add(tag);
+    }
+
+    public boolean hasTag(String tag) {
+        return tags != null && tags.contains(tag);
+    }
+
+    public Set<String> getTags() {
+        return tags == null ? Collections.emptySet() : Collections.unmodifiableSet(tags);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.gameengine.core;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * 游戏对象池：按模板创建对象，对象从场景移除后回收，再次取出时调用 reset 恢复组件状态
+ */
+public class GameObjectPool {
+    private final String name;
+    private final Supplier<GameObject> factory;
+    private final ArrayDeque<GameObject> free;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long releases;
+    private long dropped;
+
+    public GameObjectPool(String name, Supplier<GameObject> factory) {
+        this(name, factory, 1024);
+    }
+
+    public GameObjectPool(String name, Supplier<GameObject> factory, int maxSize) {
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.free = new ArrayDeque<>(Math.min(maxSize, 256));
+    }
+
+    /**
+     * 取出一个对象，池为空时用模板创建新对象
+     */
+    public synchronized GameObject acquire() {
+        GameObject obj = free.pollLast();
+        if (obj != null) {
+            hits++;
+            obj.inPool = false;
+            obj.reset();
+            return obj;
+        }
+        misses++;
+        obj = factory.get();
+        obj.pool = this;
+        return obj;
+    }
+
+    /**
+     * 回收对象，场景移除对象时自动调用；重复回收或池已满时忽略
+     */
+    public synchronized void release(GameObject obj) {
+        if (obj.pool != this || obj.inPool) return;
+        releases++;
+        if (free.size() >= maxSize) {
+            dropped++;
+            obj.pool = null;
+            return;
+        }
+        obj.inPool = true;
+        free.addLast(obj);
+    }
+
+    /**
+     * 预先创建对象，避免游戏过程中首次射击时分配
+     */
+    public synchronized void prewarm(int count) {
+        while (free.size() < Math.min(count, maxSize)) {
+            GameObject obj = factory.get();
+            obj.pool = this;
+            obj.inPool = true;
+            free.addLast(obj);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getReleases() {
+        return releases;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * 取出时直接复用的比例
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        while (free.size() > maxSize) {
+            free.pollLast().pool = null;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: 命中 %d, 未命中 %d (%.0f%%), 空闲 %d",
+            name, hits, misses, getHitRate() * 100, free.size());
+    }
+}
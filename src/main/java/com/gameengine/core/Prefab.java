@@ -0,0 +1,83 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 对象模板：声明对象名称、对象类型和组件列表（含初始值），按模板创建对象
+ *
+ * <pre>
+ * Prefab bullet = new Prefab("Bullet")
+ *     .with(TransformComponent::new)
+ *     .with(() -> new PhysicsComponent(0.1f));
+ * </pre>
+ */
+public class Prefab {
+    private final String name;
+    private final Supplier<? extends GameObject> objectFactory;
+    private final List<Supplier<? extends Component<?>>> components = new ArrayList<>();
+
+    public Prefab(String name) {
+        this(name, () -> new GameObject(name));
+    }
+
+    /**
+     * 使用自定义的 GameObject 子类（例如带有行为的敌人）
+     */
+    public Prefab(String name, Supplier<? extends GameObject> objectFactory) {
+        this.name = name;
+        this.objectFactory = objectFactory;
+    }
+
+    /**
+     * 添加一个组件，每次创建对象时调用 factory 生成带初始值的新组件
+     */
+    public Prefab with(Supplier<? extends Component<?>> factory) {
+        components.add(factory);
+        return this;
+    }
+
+    /**
+     * 创建一个对象（未加入场景）
+     */
+    public GameObject instantiate() {
+        GameObject obj = newObject();
+        for (Supplier<? extends Component<?>> factory : components) {
+            obj.attach(factory.get());
+        }
+        return obj;
+    }
+
+    /**
+     * 一次创建多个对象：先创建所有对象，再按组件类型逐列创建组件，
+     * 同类组件连续分配，批量生成的对象在内存中相邻
+     */
+    public GameObject[] instantiate(int count) {
+        GameObject[] objects = new GameObject[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = newObject();
+            objects[i].ensureComponentCapacity(components.size());
+        }
+        for (Supplier<? extends Component<?>> factory : components) {
+            for (int i = 0; i < count; i++) {
+                objects[i].attach(factory.get());
+            }
+        }
+        return objects;
+    }
+
+    private GameObject newObject() {
+        GameObject obj = objectFactory.get();
+        obj.setName(name);
+        return obj;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getComponentCount() {
+        return components.size();
+    }
+}
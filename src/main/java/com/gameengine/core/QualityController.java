@@ -0,0 +1,171 @@
+package com.gameengine.core;
+
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.util.Logger;
+
+/**
+ * 画质自适应：统计最近若干帧的平均帧耗时，超出预算时逐级降低可选工作
+ * （圆形分段数、AI 更新频率、HUD 刷新频率），持续有余量时再逐级恢复。
+ * 确定性模式下不改变 AI 更新频率，保证模拟结果与录制一致
+ */
+public class QualityController {
+    private static final Logger log = Logger.getInstance();
+    /** 各等级的圆形细分程度，等级 0 为完整画质 */
+    private static final float[] CIRCLE_DETAIL = {1.0f, 0.75f, 0.5f, 0.375f};
+    /** 各等级下 AI 每隔几帧重新决策一次 */
+    private static final int[] AI_UPDATE_INTERVAL = {1, 1, 2, 4};
+    /** 各等级下 HUD 文本每隔几帧刷新一次 */
+    private static final int[] HUD_REFRESH_INTERVAL = {1, 4, 8, 15};
+    public static final int MAX_LEVEL = CIRCLE_DETAIL.length - 1;
+
+    private static final int WINDOW = 16;
+
+    private final IRenderer renderer;
+    private final long[] frameTimes = new long[WINDOW];
+    private int frameIndex;
+    private int frameCount;
+    private long windowTotal;
+
+    private long budgetNanos;
+    private float degradeRatio = 0.9f;  // 平均帧耗时超过预算的该比例时降级
+    private float restoreRatio = 0.6f;  // 平均帧耗时低于预算的该比例并持续一段时间后恢复
+    private int restoreFrames = 120;
+    private int cooldownFrames = WINDOW;
+
+    private boolean enabled = true;
+    private boolean simulationLocked;
+    private volatile int level;
+    private int framesSinceChange;
+    private int headroomFrames;
+    private int degradeCount;
+    private int restoreCount;
+
+    public QualityController(IRenderer renderer, float targetFPS) {
+        this.renderer = renderer;
+        setTargetFPS(targetFPS);
+    }
+
+    /**
+     * 每帧结束时调用，frameNanos 为本帧更新和渲染的耗时（不含帧率控制的等待）
+     */
+    public void frameFinished(long frameNanos) {
+        windowTotal += frameNanos - frameTimes[frameIndex];
+        frameTimes[frameIndex] = frameNanos;
+        frameIndex = (frameIndex + 1) % WINDOW;
+        if (frameCount < WINDOW) frameCount++;
+        framesSinceChange++;
+        if (!enabled || frameCount < WINDOW) return;
+
+        long avg = windowTotal / WINDOW;
+        if (avg > budgetNanos * degradeRatio) {
+            headroomFrames = 0;
+            if (level < MAX_LEVEL && framesSinceChange >= cooldownFrames) {
+                degradeCount++;
+                changeLevel(level + 1, avg);
+            }
+        } else if (avg < budgetNanos * restoreRatio) {
+            headroomFrames++;
+            if (level > 0 && headroomFrames >= restoreFrames) {
+                restoreCount++;
+                changeLevel(level - 1, avg);
+            }
+        } else {
+            headroomFrames = 0;
+        }
+    }
+
+    private void changeLevel(int newLevel, long avgNanos) {
+        log.info("画质等级 %d -> %d（平均帧耗时 %.2fms，预算 %.2fms）%n",
+            level, newLevel, avgNanos / 1_000_000.0, budgetNanos / 1_000_000.0);
+        setLevel(newLevel);
+    }
+
+    /**
+     * 手动设置画质等级（0 为完整画质）
+     */
+    public void setLevel(int level) {
+        this.level = Math.max(0, Math.min(MAX_LEVEL, level));
+        framesSinceChange = 0;
+        headroomFrames = 0;
+        renderer.setCircleDetail(CIRCLE_DETAIL[this.level]);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 帧预算跟随目标帧率
+     */
+    public void setTargetFPS(float fps) {
+        if (fps > 0) {
+            this.budgetNanos = (long) (1_000_000_000.0 / fps);
+        }
+    }
+
+    /**
+     * 关闭后恢复完整画质
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            setLevel(0);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 确定性模式下锁定会影响模拟结果的设置
+     */
+    public void setSimulationLocked(boolean simulationLocked) {
+        this.simulationLocked = simulationLocked;
+    }
+
+    /**
+     * AI 每隔几帧重新决策一次，其余帧沿用上次的结果
+     */
+    public int getAiUpdateInterval() {
+        return simulationLocked ? 1 : AI_UPDATE_INTERVAL[level];
+    }
+
+    /**
+     * HUD 文本每隔几帧刷新一次
+     */
+    public int getHudRefreshInterval() {
+        return HUD_REFRESH_INTERVAL[level];
+    }
+
+    public void setDegradeRatio(float degradeRatio) {
+        this.degradeRatio = degradeRatio;
+    }
+
+    public void setRestoreRatio(float restoreRatio) {
+        this.restoreRatio = restoreRatio;
+    }
+
+    public void setRestoreFrames(int restoreFrames) {
+        this.restoreFrames = Math.max(1, restoreFrames);
+    }
+
+    public void setCooldownFrames(int cooldownFrames) {
+        this.cooldownFrames = Math.max(1, cooldownFrames);
+    }
+
+    /**
+     * 最近若干帧的平均帧耗时（毫秒）
+     */
+    public double getAvgFrameMs() {
+        return frameCount == 0 ? 0 : windowTotal / 1_000_000.0 / frameCount;
+    }
+
+    public int getDegradeCount() {
+        return degradeCount;
+    }
+
+    public int getRestoreCount() {
+        return restoreCount;
+    }
+}
@@ -0,0 +1,151 @@
+package com.gameengine.example;
+
+import com.gameengine.util.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 批量回放校验：每个录制使用独立的引擎和输入上下文，在线程池中并行模拟，
+ * 汇总吞吐量并报告所有出现不一致的录制
+ *
+ * 用法: java com.gameengine.example.BatchReplayRunner [--threads N] <录制文件或目录> [...]
+ */
+public class BatchReplayRunner {
+
+    /**
+     * 收集参数中的录制文件，目录会展开为其中的 .dat 文件
+     */
+    public static List<String> collectFiles(List<String> paths) {
+        List<String> files = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                File[] children = file.listFiles((dir, name) -> name.endsWith(".dat"));
+                if (children != null) {
+                    Arrays.sort(children);
+                    for (File child : children) {
+                        files.add(child.getPath());
+                    }
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 使用指定线程数并行运行所有录制，结果顺序与输入一致；
+     * 等待时被中断会保留已完成的结果，未完成的录制记为中断错误，并恢复中断标志
+     */
+    public static List<ReplayRunner.Result> runAll(List<String> files, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BatchReplay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<ReplayRunner.Result> results = new ArrayList<>();
+        try {
+            List<Future<ReplayRunner.Result>> futures = new ArrayList<>();
+            for (String file : files) {
+                futures.add(pool.submit(() -> ReplayRunner.run(file)));
+            }
+            boolean interrupted = false;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<ReplayRunner.Result> future = futures.get(i);
+                if (interrupted && !future.isDone()) {
+                    results.add(interruptedResult(files.get(i)));
+                    continue;
+                }
+                try {
+                    results.add(future.get());
+                } catch (InterruptedException e) {
+                    // 之后只收集已经完成的结果，不再等待
+                    interrupted = true;
+                    i--;
+                } catch (ExecutionException e) {
+                    results.add(failedResult(files.get(i), e));
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+
+    private static ReplayRunner.Result failedResult(String file, ExecutionException e) {
+        ReplayRunner.Result failed = new ReplayRunner.Result(file);
+        failed.error = e.getCause().toString();
+        return failed;
+    }
+
+    private static ReplayRunner.Result interruptedResult(String file) {
+        ReplayRunner.Result result = new ReplayRunner.Result(file);
+        result.error = "回放被中断，未完成";
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                try {
+                    threads = Math.max(1, Integer.parseInt(args[++i]));
+                } catch (NumberFormatException e) {
+                    System.err.println("无效的线程数: " + args[i]);
+                    System.exit(2);
+                }
+            } else {
+                paths.add(args[i]);
+            }
+        }
+
+        List<String> files = collectFiles(paths);
+        if (files.isEmpty()) {
+            System.err.println("用法: BatchReplayRunner [--threads N] <录制文件或目录> [...]");
+            System.exit(2);
+        }
+
+        System.out.println("并行回放 " + files.size() + " 个录制，线程数: " + threads);
+        long start = System.nanoTime();
+        List<ReplayRunner.Result> results = runAll(files, threads);
+        long elapsed = System.nanoTime() - start;
+
+        Logger.getInstance().flush(); // 先输出回放过程中的引擎日志
+        long totalTicks = 0;
+        List<ReplayRunner.Result> failures = new ArrayList<>();
+        for (ReplayRunner.Result result : results) {
+            System.out.println(result);
+            totalTicks += result.ticks;
+            if (!result.isOk()) {
+                failures.add(result);
+            }
+        }
+
+        double seconds = elapsed / 1_000_000_000.0;
+        System.out.println("==============================");
+        System.out.printf("总计: %d 个录制, %d 帧, 耗时 %.2fs, 总吞吐 %.0f 帧/秒%n",
+            results.size(), totalTicks, seconds, seconds > 0 ? totalTicks / seconds : 0);
+        if (failures.isEmpty()) {
+            System.out.println("全部通过");
+        } else {
+            System.out.println("失败 " + failures.size() + " 个:");
+            for (ReplayRunner.Result failure : failures) {
+                System.out.println("  " + failure.file + (failure.error != null ? " - " + failure.error
+                    : failure.divergenceTick >= 0 ? " - 第 " + failure.divergenceTick + " 帧不一致" : " - 最终状态不一致"));
+            }
+        }
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+}
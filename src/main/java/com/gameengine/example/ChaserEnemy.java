@@ -0,0 +1,96 @@
+package com.gameengine.example;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.AIAgent;
+import com.gameengine.scene.Scene;
+import com.gameengine.scene.SceneSnapshot;
+
+/**
+ * 追踪玩家的敌人：每帧朝玩家施加力，并按移动方向切换左右图片。
+ * 朝向由场景的 AI 调度器按距离和负载决定多久重新计算一次
+ */
+public class ChaserEnemy extends GameObject implements AIAgent {
+    private final Scene scene;
+    private final float force;
+    private final String leftImage;
+    private final String rightImage;
+    private Vector2 direction;
+
+    /**
+     * @param imageBase 图片路径前缀，实际使用 imageBase-left.png / imageBase-right.png
+     */
+    public ChaserEnemy(Scene scene, float force, String imageBase) {
+        super("Enemy");
+        this.scene = scene;
+        this.force = force;
+        this.leftImage = imageBase + "-left.png";
+        this.rightImage = imageBase + "-right.png";
+    }
+
+    @Override
+    public void initialize() {
+        scene.getAIScheduler().register(this);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        if (scene.getAIScheduler().isLocked()) {
+            think(); // 确定性模式下每帧在更新中途决策，与录制时的顺序一致
+        }
+        PhysicsComponent physics = getComponent(PhysicsComponent.class);
+        if (direction != null && physics != null) {
+            physics.applyForce(direction.multiply(force));
+        }
+        updateComponents(deltaTime);
+    }
+
+    /**
+     * 重新计算朝向玩家的方向并切换图片，未调用的帧沿用上次的方向
+     */
+    @Override
+    public void think() {
+        direction = null;
+        GameObject player = scene.getAIScheduler().getFocus();
+        if (player == null) return;
+        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
+        TransformComponent enemyTransform = getComponent(TransformComponent.class);
+        RenderComponent render = getComponent(RenderComponent.class);
+        if (playerTransform == null || enemyTransform == null || render == null) return;
+        direction = scene.getAIScheduler().steer(enemyTransform.getPosition(), playerTransform.getPosition());
+        render.setImagePath(direction.x > 0 ? rightImage : leftImage);
+    }
+
+    /**
+     * 保存缓存的朝向，未锁定的调度器在跳过决策的帧沿用它
+     */
+    @Override
+    public void captureSnapshotState(SceneSnapshot.EntityState state) {
+        super.captureSnapshotState(state);
+        if (direction != null) {
+            state.putFloat("direction.x", direction.x);
+            state.putFloat("direction.y", direction.y);
+        }
+    }
+
+    @Override
+    public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+        super.restoreSnapshotState(state);
+        direction = state.hasValue("direction.x")
+            ? new Vector2(state.getFloat("direction.x", 0), state.getFloat("direction.y", 0))
+            : null;
+        RenderComponent render = getComponent(RenderComponent.class);
+        if (direction != null && render != null) {
+            render.setImagePath(direction.x > 0 ? rightImage : leftImage);
+        }
+    }
+
+    @Override
+    public void render() {
+        renderComponents();
+    }
+}
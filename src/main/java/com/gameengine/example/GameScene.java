@@ -3,14 +3,24 @@ package com.gameengine.example;
 import com.gameengine.components.*;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameEvents;
 import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObjectPool;
+import com.gameengine.core.Prefab;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.FlowField;
 import com.gameengine.scene.Scene;
+import com.gameengine.scene.SceneSnapshot;
+import com.gameengine.util.Profiler;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.WeakHashMap;
 
 public class GameScene extends Scene {
+    private static final float FLOW_CELL_SIZE = 20f;
+
     private GameEngine engine;
     private IRenderer renderer;
     private Random random;
@@ -18,19 +28,35 @@ public class GameScene extends Scene {
     private GameLogic gameLogic;
     private ScoreTable scoreTable;
     private boolean gameOver = false;
+    private final Map<GameObject, String> snapshotKinds = new WeakHashMap<>();
+    private Profiler profiler;
+    private int secPlayerInput, secPhysics, secCollisions, secSpawn;
+    private Prefab snakePrefab, minionPrefab, scorpionPrefab;
+    private ProfileOverlay profileOverlay;
 
     public GameScene(GameEngine engine) {
         super("GameScene");
         this.engine = engine;
+        getEventBus().subscribe(GameEvents.EnemyKilled.class, this::onEnemiesKilled);
     }
 
     @Override
     public void initialize() {
         super.initialize();
         this.renderer = engine.getRenderer();
-        this.random = new Random();
+        this.random = engine.createRandom();
         this.time = 0;
-        this.gameLogic = new GameLogic(this);
+        this.gameLogic = new GameLogic(this, engine.getInputManager());
+        this.profiler = engine.getProfiler();
+        this.secPlayerInput = profiler.section("PlayerInput");
+        this.secPhysics = profiler.section("Physics");
+        this.secCollisions = profiler.section("Collisions");
+        this.secSpawn = profiler.section("Spawn");
+        this.profileOverlay = new ProfileOverlay(engine);
+        getAIScheduler().setFocusName("Player");
+        getAIScheduler().setFlowField(new FlowField(renderer.getWidth(), renderer.getHeight(), FLOW_CELL_SIZE));
+        getAIScheduler().setFlowFieldAsync(true);
+        createPrefabs();
         createPlayer();
         createEnemies();
         createTable();
@@ -38,18 +64,32 @@ public class GameScene extends Scene {
 
     @Override
     public void update(float deltaTime) {
+        if (engine.getInputManager().isControlKeyJustPressed(80)) { // P键，不受回放影响
+            profileOverlay.toggle();
+        }
         if (gameOver) return;
         super.update(deltaTime);
         time += deltaTime;
+        profiler.begin(secPlayerInput);
         gameLogic.handlePlayerInput();
+        profiler.end(secPlayerInput);
+
+        profiler.begin(secPhysics);
         gameLogic.updatePhysics();
+        profiler.end(secPhysics);
+
+        profiler.begin(secCollisions);
         gameLogic.checkCollisions();
+        profiler.end(secCollisions);
+
+        profiler.begin(secSpawn);
         gameLogic.checkEnemyCount();
         if (time > 2.0f) {
             createEnemy();
             scoreTable.updateEnemyCount(1);
             time = 0;
         }
+        profiler.end(secSpawn);
     }
 
     @Override
@@ -59,13 +99,16 @@ public class GameScene extends Scene {
         if (gameOver) {
             renderer.drawText("GAME OVER", 300f, 300f, 1f, 0f, 0f, 1.0f, 48);
         }
+        profileOverlay.render(renderer);
     }
 
-    @Override
-    public void onEnemyKilled() {
+    /**
+     * 一批击杀事件只更新一次计分板
+     */
+    private void onEnemiesKilled(List<GameEvents.EnemyKilled> batch) {
         if (scoreTable != null) {
-            scoreTable.updateScore(1);
-            scoreTable.updateEnemyCount(-1);
+            scoreTable.updateScore(batch.size());
+            scoreTable.updateEnemyCount(-batch.size());
         }
     }
 
@@ -78,6 +121,16 @@ public class GameScene extends Scene {
         return scoreTable.enemyCount;
     }
 
+    @Override
+    public int getScore() {
+        return scoreTable != null ? scoreTable.score : 0;
+    }
+
+    @Override
+    public List<GameObjectPool> getPools() {
+        return List.of(gameLogic.getBulletPool(), gameLogic.getEnemyBulletPool());
+    }
+
     @Override
     public void onEnemyLimitExceeded() {
         gameOver = true;
@@ -89,6 +142,10 @@ public class GameScene extends Scene {
     }
 
     private void createPlayer() {
+        addGameObject(buildPlayer());
+    }
+
+    private GameObject buildPlayer() {
         GameObject player = new GameObject("Player") {
             private Vector2 basePosition;
             private float facingDirection = 0f;
@@ -112,6 +169,20 @@ public class GameScene extends Scene {
                 if (transform != null) basePosition = transform.getPosition();
             }
 
+            @Override
+            public void captureSnapshotState(SceneSnapshot.EntityState state) {
+                super.captureSnapshotState(state);
+                state.putFloat("facing", facingDirection);
+            }
+
+            @Override
+            public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+                super.restoreSnapshotState(state);
+                facingDirection = state.getFloat("facing", 0f);
+                TransformComponent transform = getComponent(TransformComponent.class);
+                if (transform != null) basePosition = transform.getPosition();
+            }
+
             @Override
             public void render() {
                 if (basePosition == null) return;
@@ -172,7 +243,7 @@ public class GameScene extends Scene {
         physics.setFriction(0.9f);
         player.addComponent(new HealthComponent(5));
         player.addComponent(new AttackComponent(60.0f, 0.5f, 1));
-        addGameObject(player);
+        return player;
     }
 
     private void createEnemies() {
@@ -191,113 +262,125 @@ public class GameScene extends Scene {
     }
 
     private void createSnakeEnemy() {
-        GameObject enemy = new GameObject("Enemy") {
-            @Override
-            public void update(float deltaTime) {
-                super.update(deltaTime);
-                GameObject player = findGameObjectByName("Player");
-                if (player != null) {
-                    TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-                    TransformComponent enemyTransform = getComponent(TransformComponent.class);
-                    PhysicsComponent physics = getComponent(PhysicsComponent.class);
-                    RenderComponent render = getComponent(RenderComponent.class);
-                    if (playerTransform != null && enemyTransform != null && physics != null && render != null) {
-                        Vector2 direction = playerTransform.getPosition().subtract(enemyTransform.getPosition()).normalize();
-                        physics.applyForce(direction.multiply(100f));
-                        render.setImagePath(direction.x > 0 ? "src/resource/snake-right.png" : "src/resource/snake-left.png");
-                    }
-                }
-                updateComponents(deltaTime);
-            }
-
-            @Override
-            public void render() {
-                renderComponents();
-            }
-        };
-        Vector2 position = new Vector2(random.nextFloat() * 800, random.nextFloat() * 600);
-        enemy.addComponent(new TransformComponent(position));
-        RenderComponent render = enemy.addComponent(new RenderComponent("src/resource/snake-left.png", new Vector2(40, 40)));
-        render.setRenderer(renderer);
-        PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.5f));
-        physics.setVelocity(new Vector2((random.nextFloat() - 0.5f) * 100, (random.nextFloat() - 0.5f) * 100));
-        physics.setFriction(0.98f);
-        addGameObject(enemy);
+        spawnEnemy(buildSnakeEnemy(), 100);
     }
 
     private void createMinionEnemy() {
-        GameObject enemy = new GameObject("Enemy") {
-            @Override
-            public void update(float deltaTime) {
-                super.update(deltaTime);
-                GameObject player = findGameObjectByName("Player");
-                if (player != null) {
-                    TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-                    TransformComponent enemyTransform = getComponent(TransformComponent.class);
-                    PhysicsComponent physics = getComponent(PhysicsComponent.class);
-                    RenderComponent render = getComponent(RenderComponent.class);
-                    if (playerTransform != null && enemyTransform != null && physics != null && render != null) {
-                        Vector2 direction = playerTransform.getPosition().subtract(enemyTransform.getPosition()).normalize();
-                        physics.applyForce(direction.multiply(180f));
-                        render.setImagePath(direction.x > 0 ? "src/resource/minion-right.png" : "src/resource/minion-left.png");
-                    }
-                }
-                updateComponents(deltaTime);
-            }
-
-            @Override
-            public void render() {
-                renderComponents();
-            }
-        };
-        Vector2 position = new Vector2(random.nextFloat() * 800, random.nextFloat() * 600);
-        enemy.addComponent(new TransformComponent(position));
-        RenderComponent render = enemy.addComponent(new RenderComponent("src/resource/minion-left.png", new Vector2(35, 35)));
-        render.setRenderer(renderer);
-        PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.3f));
-        physics.setVelocity(new Vector2((random.nextFloat() - 0.5f) * 150, (random.nextFloat() - 0.5f) * 150));
-        physics.setFriction(0.95f);
-        addGameObject(enemy);
+        spawnEnemy(buildMinionEnemy(), 150);
     }
 
     private void createScorpionEnemy() {
-        GameObject enemy = new GameObject("Enemy") {
-            @Override
-            public void update(float deltaTime) {
-                super.update(deltaTime);
-                GameObject player = findGameObjectByName("Player");
-                if (player != null) {
-                    TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-                    TransformComponent enemyTransform = getComponent(TransformComponent.class);
-                    PhysicsComponent physics = getComponent(PhysicsComponent.class);
-                    RenderComponent render = getComponent(RenderComponent.class);
-                    if (playerTransform != null && enemyTransform != null && physics != null && render != null) {
-                        Vector2 direction = playerTransform.getPosition().subtract(enemyTransform.getPosition()).normalize();
-                        physics.applyForce(direction.multiply(60f));
-                        render.setImagePath(direction.x > 0 ? "src/resource/Scorpion-right.png" : "src/resource/Scorpion-left.png");
-                    }
-                }
-                updateComponents(deltaTime);
-            }
+        spawnEnemy(buildScorpionEnemy(), 60);
+    }
 
-            @Override
-            public void render() {
-                renderComponents();
-            }
-        };
+    /**
+     * 随机放置敌人并赋予初始速度
+     */
+    private void spawnEnemy(GameObject enemy, float speed) {
         Vector2 position = new Vector2(random.nextFloat() * 800, random.nextFloat() * 600);
-        enemy.addComponent(new TransformComponent(position));
-        RenderComponent render = enemy.addComponent(new RenderComponent("src/resource/Scorpion-left.png", new Vector2(45, 45)));
-        render.setRenderer(renderer);
-        PhysicsComponent physics = enemy.addComponent(new PhysicsComponent(0.8f));
-        physics.setVelocity(new Vector2((random.nextFloat() - 0.5f) * 60, (random.nextFloat() - 0.5f) * 60));
-        physics.setFriction(0.99f);
+        enemy.getComponent(TransformComponent.class).setPosition(position);
+        PhysicsComponent physics = enemy.getComponent(PhysicsComponent.class);
+        physics.setVelocity(new Vector2((random.nextFloat() - 0.5f) * speed, (random.nextFloat() - 0.5f) * speed));
         addGameObject(enemy);
     }
 
+    /**
+     * 三种敌人的模板：追踪力度、图片、尺寸、质量和摩擦力不同
+     */
+    private void createPrefabs() {
+        snakePrefab = enemyPrefab(100f, "snake", 40, 0.5f, 0.98f);
+        minionPrefab = enemyPrefab(180f, "minion", 35, 0.3f, 0.95f);
+        scorpionPrefab = enemyPrefab(60f, "Scorpion", 45, 0.8f, 0.99f);
+    }
+
+    private Prefab enemyPrefab(float force, String image, float size, float mass, float friction) {
+        String imageBase = "src/resource/" + image;
+        return new Prefab("Enemy", () -> new ChaserEnemy(this, force, imageBase))
+            .with(TransformComponent::new)
+            .with(() -> {
+                RenderComponent render = new RenderComponent(imageBase + "-left.png", new Vector2(size, size));
+                render.setRenderer(renderer);
+                return render;
+            })
+            .with(() -> {
+                PhysicsComponent physics = new PhysicsComponent(mass);
+                physics.setFriction(friction);
+                return physics;
+            });
+    }
+
+    private GameObject buildSnakeEnemy() {
+        return buildEnemy(snakePrefab, "Snake");
+    }
+
+    private GameObject buildMinionEnemy() {
+        return buildEnemy(minionPrefab, "Minion");
+    }
+
+    private GameObject buildScorpionEnemy() {
+        return buildEnemy(scorpionPrefab, "Scorpion");
+    }
+
+    private GameObject buildEnemy(Prefab prefab, String kind) {
+        GameObject enemy = prefab.instantiate();
+        snapshotKinds.put(enemy, kind);
+        return enemy;
+    }
+
+    @Override
+    protected String getSnapshotKind(GameObject obj) {
+        String kind = snapshotKinds.get(obj);
+        return kind != null ? kind : obj.getName();
+    }
+
+    @Override
+    protected GameObject createFromSnapshot(SceneSnapshot.EntityState state) {
+        switch (state.getKind()) {
+            case "Player": return buildPlayer();
+            case "Snake": return buildSnakeEnemy();
+            case "Minion": return buildMinionEnemy();
+            case "Scorpion": return buildScorpionEnemy();
+            case "Bullet": return gameLogic.createBullet();
+            case "ScoreTable":
+                scoreTable = new ScoreTable();
+                return scoreTable;
+            default: return null;
+        }
+    }
+
+    @Override
+    protected void captureSceneState(SceneSnapshot snapshot) {
+        snapshot.saveRandom(random);
+        snapshot.putFloat("spawnTimer", time);
+        snapshot.putFloat("lastShotTime", gameLogic.getLastShotTime());
+        snapshot.putInt("gameOver", gameOver ? 1 : 0);
+        if (scoreTable != null) {
+            snapshot.putInt("score", scoreTable.score);
+            snapshot.putInt("enemyCount", scoreTable.enemyCount);
+        }
+    }
+
+    @Override
+    protected void restoreSceneState(SceneSnapshot snapshot) {
+        Random restored = snapshot.loadRandom();
+        if (restored != null) random = restored;
+        time = snapshot.getFloat("spawnTimer", 0);
+        gameLogic.setLastShotTime(snapshot.getFloat("lastShotTime", 0));
+        gameOver = snapshot.getInt("gameOver", 0) != 0;
+        if (scoreTable != null) {
+            scoreTable.score = snapshot.getInt("score", 0);
+            scoreTable.enemyCount = snapshot.getInt("enemyCount", 0);
+        }
+    }
+
     final class ScoreTable extends GameObject {
         int score = 0;
         int enemyCount = 3;
+        private String scoreText;
+        private String fpsText;
+        private int shownScore = -1;
+        private int shownEnemyCount = -1;
+        private int refreshCountdown;
 
         public ScoreTable() {
             super("ScoreTable");
@@ -305,9 +388,17 @@ public class GameScene extends Scene {
 
         @Override
         public void render() {
-            renderer.drawText("Score: " + score + "  Enemies: " + enemyCount, 10f, 10f, 1f, 1f, 1f, 1.0f, 16);
-            float fps = engine.getCurrentFPS();
-            String fpsText = String.format("FPS: %.0f", fps);
+            // 分数变化时立即刷新，FPS 文本按画质等级隔几帧刷新一次
+            if (score != shownScore || enemyCount != shownEnemyCount) {
+                scoreText = "Score: " + score + "  Enemies: " + enemyCount;
+                shownScore = score;
+                shownEnemyCount = enemyCount;
+            }
+            if (fpsText == null || --refreshCountdown <= 0) {
+                fpsText = String.format("FPS: %.0f", engine.getCurrentFPS());
+                refreshCountdown = getHudRefreshInterval();
+            }
+            renderer.drawText(scoreText, 10f, 10f, 1f, 1f, 1f, 1.0f, 16);
             renderer.drawText(fpsText, 720f, 10f, 0f, 1f, 0f, 1.0f, 16);
         }
 
@@ -0,0 +1,387 @@
+package com.gameengine.example;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.util.Logger;
+import com.gameengine.util.Profiler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 性能回归测试：把参考录制作为固定负载无窗口运行，统计每个阶段的逐帧耗时分布，
+ * 与保存的基线比较。超出容差、基线缺少测量项或基线中的录制没有被测量时返回非零退出码
+ *
+ * 用法: java com.gameengine.example.PerfRegressionRunner [--baseline perf-baseline.properties]
+ *       [--tolerance 0.2] [--min-delta 0.05] [--warmup-runs 1] [--update] <录制文件或目录> [...]
+ * --update 用本次结果覆盖基线，有录制回放失败时不写入并返回非零退出码
+ */
+public class PerfRegressionRunner {
+    /** 记录的阶段 */
+    public static final String[] PHASES = {"Frame", "SceneUpdate", "Physics", "Collisions", "Render"};
+    /** 超出基线时判定为回归的阶段 */
+    public static final String[] GATED_PHASES = {"SceneUpdate", "Collisions", "Render"};
+    /** 比较的统计量 */
+    private static final String[] GATED_STATS = {"p50", "p95"};
+
+    /**
+     * 单个阶段的逐帧耗时
+     */
+    public static class PhaseStats {
+        public final String phase;
+        private long[] samples = new long[1024];
+        private int count;
+        private boolean sorted;
+
+        public PhaseStats(String phase) {
+            this.phase = phase;
+        }
+
+        void add(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            sorted = false;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * 百分位耗时（毫秒）
+         */
+        public double percentileMs(double percentile) {
+            if (count == 0) return 0;
+            if (!sorted) {
+                Arrays.sort(samples, 0, count);
+                sorted = true;
+            }
+            int index = Math.min(count - 1, Math.max(0, (int) Math.ceil(percentile * count) - 1));
+            return samples[index] / 1_000_000.0;
+        }
+
+        public double meanMs() {
+            if (count == 0) return 0;
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += samples[i];
+            }
+            return sum / 1_000_000.0 / count;
+        }
+
+        double statMs(String stat) {
+            switch (stat) {
+                case "p50": return percentileMs(0.50);
+                case "p95": return percentileMs(0.95);
+                case "p99": return percentileMs(0.99);
+                case "mean": return meanMs();
+                default: return 0;
+            }
+        }
+    }
+
+    /**
+     * 单个录制的测量结果
+     */
+    public static class Measurement {
+        public final String name;
+        public final Map<String, PhaseStats> phases = new LinkedHashMap<>();
+        public ReplayRunner.Result replay;
+
+        public Measurement(String name) {
+            this.name = name;
+            for (String phase : PHASES) {
+                phases.put(phase, new PhaseStats(phase));
+            }
+        }
+    }
+
+    /**
+     * 与基线比较发现的回归
+     */
+    public static class Regression {
+        public final String key;
+        public final double baselineMs;
+        public final double currentMs;
+
+        public Regression(String key, double baselineMs, double currentMs) {
+            this.key = key;
+            this.baselineMs = baselineMs;
+            this.currentMs = currentMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: 基线 %.3fms -> 当前 %.3fms (%+.0f%%)",
+                key, baselineMs, currentMs, (currentMs / baselineMs - 1) * 100);
+        }
+    }
+
+    private double tolerance = 0.2;
+    private double minDeltaMs = 0.05;
+    private int warmupRuns = 1;
+
+    /**
+     * 运行一个录制并记录每帧各阶段耗时，先运行若干次预热 JIT
+     */
+    public Measurement measure(String filepath) {
+        for (int i = 0; i < warmupRuns; i++) {
+            ReplayRunner.run(filepath);
+        }
+
+        Measurement measurement = new Measurement(new File(filepath).getName());
+        int[] sections = new int[PHASES.length];
+        PhaseStats[] stats = new PhaseStats[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            stats[i] = measurement.phases.get(PHASES[i]);
+        }
+        Profiler[] resolved = new Profiler[1];
+        measurement.replay = ReplayRunner.run(filepath, (GameEngine engine) -> {
+            Profiler profiler = engine.getProfiler();
+            if (resolved[0] != profiler) {
+                for (int i = 0; i < PHASES.length; i++) {
+                    sections[i] = profiler.section(PHASES[i]);
+                }
+                resolved[0] = profiler;
+            }
+            for (int i = 0; i < PHASES.length; i++) {
+                stats[i].add(profiler.getLastFrameDuration(sections[i]));
+            }
+        });
+        return measurement;
+    }
+
+    /**
+     * 与基线比较受检阶段的 p50/p95，同时超出相对容差和绝对阈值才算回归
+     */
+    public List<Regression> compare(List<Measurement> measurements, Properties baseline) {
+        List<Regression> regressions = new ArrayList<>();
+        for (Measurement measurement : measurements) {
+            for (String phase : GATED_PHASES) {
+                PhaseStats stats = measurement.phases.get(phase);
+                for (String stat : GATED_STATS) {
+                    String key = key(measurement.name, phase, stat);
+                    String value = baseline.getProperty(key);
+                    if (value == null) continue; // 由 findMissing() 报告
+                    double baselineMs = Double.parseDouble(value);
+                    double currentMs = stats.statMs(stat);
+                    if (currentMs > baselineMs * (1 + tolerance) && currentMs - baselineMs > minDeltaMs) {
+                        regressions.add(new Regression(key, baselineMs, currentMs));
+                    }
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * 受检阶段中基线没有记录的项，这些项无法比较
+     */
+    public static List<String> findMissing(List<Measurement> measurements, Properties baseline) {
+        List<String> missing = new ArrayList<>();
+        for (Measurement measurement : measurements) {
+            for (String phase : GATED_PHASES) {
+                for (String stat : GATED_STATS) {
+                    String key = key(measurement.name, phase, stat);
+                    if (baseline.getProperty(key) == null) {
+                        missing.add(key);
+                    }
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 基线中有记录但本次没有测量的录制（文件缺失、回放失败或未传入）
+     */
+    public static Set<String> findUnmatched(List<Measurement> measurements, Properties baseline) {
+        Set<String> measured = new TreeSet<>();
+        for (Measurement measurement : measurements) {
+            measured.add(measurement.name);
+        }
+        Set<String> unmatched = new TreeSet<>();
+        for (String key : baseline.stringPropertyNames()) {
+            int statDot = key.lastIndexOf('.');
+            int phaseDot = statDot > 0 ? key.lastIndexOf('.', statDot - 1) : -1;
+            String name = phaseDot > 0 ? key.substring(0, phaseDot) : key;
+            if (!measured.contains(name)) {
+                unmatched.add(name);
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * 把测量结果转换为基线格式
+     */
+    public static Properties toBaseline(List<Measurement> measurements) {
+        Properties properties = new Properties();
+        for (Measurement measurement : measurements) {
+            for (PhaseStats stats : measurement.phases.values()) {
+                for (String stat : new String[] {"p50", "p95", "p99", "mean"}) {
+                    properties.setProperty(key(measurement.name, stats.phase, stat),
+                        String.format(Locale.ROOT, "%.4f", stats.statMs(stat)));
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static String key(String replay, String phase, String stat) {
+        return replay + "." + phase + "." + stat;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public void setMinDeltaMs(double minDeltaMs) {
+        this.minDeltaMs = minDeltaMs;
+    }
+
+    public void setWarmupRuns(int warmupRuns) {
+        this.warmupRuns = Math.max(0, warmupRuns);
+    }
+
+    private static void printMeasurement(Measurement measurement) {
+        Logger.getInstance().flush(); // 先输出测量过程中的引擎日志
+        System.out.printf("%s: %d 帧%n", measurement.name, measurement.replay.ticks);
+        System.out.printf("  %-12s %9s %9s %9s %9s%n", "阶段", "p50", "p95", "p99", "平均");
+        for (PhaseStats stats : measurement.phases.values()) {
+            System.out.printf("  %-12s %8.3fms %8.3fms %8.3fms %8.3fms%n", stats.phase,
+                stats.percentileMs(0.50), stats.percentileMs(0.95), stats.percentileMs(0.99), stats.meanMs());
+        }
+    }
+
+    public static void main(String[] args) {
+        PerfRegressionRunner runner = new PerfRegressionRunner();
+        String baselinePath = "perf-baseline.properties";
+        boolean update = false;
+        List<String> paths = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--baseline": baselinePath = args[++i]; break;
+                    case "--tolerance": runner.setTolerance(Double.parseDouble(args[++i])); break;
+                    case "--min-delta": runner.setMinDeltaMs(Double.parseDouble(args[++i])); break;
+                    case "--warmup-runs": runner.setWarmupRuns(Integer.parseInt(args[++i])); break;
+                    case "--update": update = true; break;
+                    default: paths.add(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("参数错误: " + e);
+            System.exit(2);
+        }
+
+        List<String> files = BatchReplayRunner.collectFiles(paths);
+        if (files.isEmpty()) {
+            System.err.println("用法: PerfRegressionRunner [--baseline 文件] [--tolerance 0.2] [--min-delta 0.05] "
+                + "[--warmup-runs 1] [--update] <录制文件或目录> [...]");
+            System.exit(2);
+        }
+
+        List<Measurement> measurements = new ArrayList<>();
+        List<String> failedFiles = new ArrayList<>();
+        for (String file : files) {
+            Measurement measurement = runner.measure(file);
+            if (!measurement.replay.isOk()) {
+                System.err.println(measurement.replay);
+                failedFiles.add(file);
+                continue;
+            }
+            if (!measurement.replay.deterministic) {
+                System.out.println(file + ": 跳过（非确定性录制无法逐帧计时）");
+                continue;
+            }
+            printMeasurement(measurement);
+            measurements.add(measurement);
+        }
+
+        File baselineFile = new File(baselinePath);
+        if (update) {
+            if (!failedFiles.isEmpty()) {
+                Logger.getInstance().flush();
+                System.err.println("以下录制回放失败，基线未更新:");
+                for (String file : failedFiles) {
+                    System.err.println("  " + file);
+                }
+                System.exit(1);
+            }
+            try (OutputStream out = new FileOutputStream(baselineFile)) {
+                toBaseline(measurements).store(out, "Per-phase frame time baseline (ms), java "
+                    + System.getProperty("java.version") + ", " + System.getProperty("os.name"));
+                System.out.println("基线已更新: " + baselineFile.getPath());
+            } catch (IOException e) {
+                System.err.println("保存基线失败: " + e.getMessage());
+                System.exit(2);
+            }
+            System.exit(0);
+        }
+
+        if (!baselineFile.exists()) {
+            System.err.println("基线文件不存在: " + baselinePath + "，使用 --update 生成");
+            System.exit(2);
+        }
+        Properties baseline = new Properties();
+        try (InputStream in = new FileInputStream(baselineFile)) {
+            baseline.load(in);
+        } catch (IOException e) {
+            System.err.println("读取基线失败: " + e.getMessage());
+            System.exit(2);
+        }
+
+        Logger.getInstance().flush();
+        boolean failed = !failedFiles.isEmpty();
+        List<String> missing = findMissing(measurements, baseline);
+        if (!missing.isEmpty()) {
+            System.err.println("基线缺少以下测量项，使用 --update 重新生成:");
+            for (String key : missing) {
+                System.err.println("  " + key);
+            }
+            failed = true;
+        }
+        Set<String> unmatched = findUnmatched(measurements, baseline);
+        if (!unmatched.isEmpty()) {
+            System.err.println("基线中的以下录制没有测量结果:");
+            for (String name : unmatched) {
+                System.err.println("  " + name);
+            }
+            failed = true;
+        }
+
+        List<Regression> regressions = runner.compare(measurements, baseline);
+        if (!regressions.isEmpty()) {
+            System.err.println();
+            System.err.println("========== 性能回归 ==========");
+            for (Regression regression : regressions) {
+                System.err.println("  " + regression);
+            }
+            System.err.printf("容差 %.0f%%，最小差值 %.2fms%n", runner.tolerance * 100, runner.minDeltaMs);
+            System.err.println("==============================");
+            System.exit(1);
+        }
+        if (failed) {
+            System.err.println("性能回归检查未通过");
+            System.exit(1);
+        }
+        System.out.println("未发现性能回归（" + measurements.size() + " 个录制）");
+        System.exit(0);
+    }
+}
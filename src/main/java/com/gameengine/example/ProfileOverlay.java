@@ -0,0 +1,82 @@
+package com.gameengine.example;
+
+import com.gameengine.core.FrameWatchdog;
+import com.gameengine.core.GameEngine;
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.util.Profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 性能面板（P 键切换）：按平均耗时列出各分析区域，开启分配统计时显示每帧分配量和 GC 次数，并显示卡顿次数。
+ * 不是场景中的对象，不影响状态哈希和关键帧，回放时也可以打开
+ */
+public class ProfileOverlay {
+    private static final int MAX_SECTIONS = 12;
+
+    private final GameEngine engine;
+    private boolean visible;
+
+    public ProfileOverlay(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void render(IRenderer renderer) {
+        if (!visible) return;
+
+        renderer.drawRect(10f, 50f, 440f, 320f, 0f, 0f, 0f, 0.7f);
+        renderer.drawText("=== Performance Profile (Press P to toggle) ===", 20f, 70f, 1f, 1f, 0f, 1.0f, 14);
+
+        Profiler profiler = engine.getProfiler();
+        // 按平均耗时从高到低排列
+        List<Map.Entry<String, Profiler.ProfileData>> entries = new ArrayList<>(profiler.getAllStats().entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().avgDuration, a.getValue().avgDuration));
+        long totalTime = 0;
+        for (Map.Entry<String, Profiler.ProfileData> entry : entries) {
+            totalTime += entry.getValue().avgDuration;
+        }
+
+        boolean allocation = profiler.isAllocationTracking();
+        float y = 90f;
+        for (int i = 0; i < entries.size() && i < MAX_SECTIONS; i++) {
+            String section = entries.get(i).getKey();
+            Profiler.ProfileData data = entries.get(i).getValue();
+            double percentage = totalTime > 0 ? data.avgDuration * 100.0 / totalTime : 0;
+            float r = percentage > 10 ? 1f : 0.5f;
+            float g = percentage > 20 ? 0f : (percentage > 10 ? 0.5f : 1f);
+            String name = section.length() > 15 ? section.substring(0, 15) : section;
+            String text = allocation
+                ? String.format("%-15s: %5.2fms p99 %5.2fms %6.1fKB (%4.1f%%)",
+                    name, data.getAvgMs(), data.getP99Ms(), data.getAvgAllocatedKB(), percentage)
+                : String.format("%-15s: %5.2fms p99 %5.2fms (%4.1f%%)", name, data.getAvgMs(), data.getP99Ms(), percentage);
+            renderer.drawText(text, 20f, y, r, g, 0f, 1.0f, 12);
+            y += 18f;
+        }
+
+        y += 5f;
+        renderer.drawText(String.format("Total: %.2fms", totalTime / 1_000_000.0), 20f, y, 1f, 1f, 1f, 1.0f, 14);
+
+        if (allocation) {
+            y += 18f;
+            renderer.drawText(String.format("Alloc: %.1fKB/frame (last %.1fKB) | GC: %d total, %d last frame",
+                profiler.getAvgFrameAllocatedBytes() / 1024.0, profiler.getLastFrameAllocatedBytes() / 1024.0,
+                profiler.getTotalGcCount(), profiler.getLastFrameGcCount()), 20f, y, 0.6f, 0.8f, 1f, 1.0f, 12);
+        }
+
+        y += 18f;
+        FrameWatchdog watchdog = engine.getWatchdog();
+        int hitches = watchdog.getHitchCount();
+        renderer.drawText(String.format("Hitches > %.1fms: %d (last %.1fms)", watchdog.getThresholdMs(),
+            hitches, watchdog.getLastHitchMs()), 20f, y, hitches > 0 ? 1f : 0.6f, hitches > 0 ? 0.4f : 0.6f, 0.4f, 1.0f, 12);
+    }
+}
@@ -0,0 +1,152 @@
+package com.gameengine.example;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.input.InputManager;
+import com.gameengine.util.Logger;
+import com.gameengine.util.Profiler;
+
+import java.util.function.Consumer;
+
+/**
+ * 无窗口回放运行器：不受实际时钟限制，以最快速度模拟录制，
+ * 报告每秒模拟帧数和最终状态哈希，可用于回归和性能测试
+ *
+ * 用法: java com.gameengine.example.ReplayRunner replay.dat [more.dat ...]
+ */
+public class ReplayRunner {
+
+    /**
+     * 单个录制的运行结果
+     */
+    public static class Result {
+        public final String file;
+        public boolean deterministic;
+        public long ticks;
+        public float tickRate;
+        public long elapsedNanos;
+        public long finalHash;
+        public long expectedHash;
+        public long divergenceTick = -1;
+        public String error;
+
+        public Result(String file) {
+            this.file = file;
+        }
+
+        public double getTicksPerSecond() {
+            return elapsedNanos > 0 ? ticks / (elapsedNanos / 1_000_000_000.0) : 0;
+        }
+
+        /**
+         * 模拟速度相对实时的倍数
+         */
+        public double getSpeedup() {
+            return tickRate > 0 ? getTicksPerSecond() / tickRate : 0;
+        }
+
+        public boolean isDiverged() {
+            return divergenceTick >= 0 || (deterministic && finalHash != expectedHash);
+        }
+
+        public boolean isOk() {
+            return error == null && !isDiverged();
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("%s: 错误 - %s", file, error);
+            }
+            String status;
+            if (!deterministic) {
+                status = "未校验（非确定性录制，快进模拟，不含渲染）";
+            } else if (divergenceTick >= 0) {
+                status = "不一致，首次出现在第 " + divergenceTick + " 帧";
+            } else if (finalHash != expectedHash) {
+                status = "最终状态不一致";
+            } else {
+                status = "一致";
+            }
+            return String.format("%s: %d 帧, 耗时 %.2fs, %.0f 帧/秒 (%.1fx 实时), 最终哈希 %016x, %s",
+                file, ticks, elapsedNanos / 1_000_000_000.0, getTicksPerSecond(), getSpeedup(), finalHash, status);
+        }
+    }
+
+    /**
+     * 无窗口运行一个录制，使用独立的输入和分析器上下文，可在多个线程中同时调用
+     */
+    public static Result run(String filepath) {
+        return run(filepath, null);
+    }
+
+    /**
+     * 无窗口运行一个录制，确定性录制每模拟一帧后调用 onTick（可为 null）
+     */
+    public static Result run(String filepath, Consumer<GameEngine> onTick) {
+        Result result = new Result(filepath);
+        GameEngine engine = new GameEngine(800, 600, "ReplayRunner", RenderBackend.HEADLESS,
+            new InputManager(), new Profiler());
+        InputManager inputManager = engine.getInputManager();
+        engine.getWatchdog().setEnabled(false); // 全速模拟时不按实时帧预算记录卡顿
+        engine.getQualityController().setEnabled(false);
+        try {
+            engine.start();
+            engine.startReplay(filepath, new GameScene(engine));
+            if (!inputManager.isReplaying()) {
+                result.error = "无法开始回放";
+                return result;
+            }
+
+            result.deterministic = inputManager.isDeterministicRecording();
+            long start = System.nanoTime();
+            if (result.deterministic) {
+                result.tickRate = engine.getTickRate();
+                while (inputManager.isReplaying() && engine.isRunning()) {
+                    engine.step();
+                    result.ticks++;
+                    if (onTick != null) {
+                        onTick.accept(engine);
+                    }
+                }
+                result.expectedHash = inputManager.getRecordedStateHash(inputManager.getRecordedTickCount() - 1);
+            } else {
+                // 旧录制按时间戳回放，以固定步长快速模拟到结尾，帧数取实际模拟的步数
+                result.tickRate = engine.getTargetFPS();
+                if (engine.seekReplay(inputManager.getRecordingDuration())) {
+                    result.ticks = engine.getLastSeekSteps();
+                }
+            }
+            result.elapsedNanos = System.nanoTime() - start;
+            result.finalHash = engine.getCurrentScene().computeStateHash();
+            result.divergenceTick = inputManager.getDivergenceTick();
+        } catch (RuntimeException e) {
+            result.error = e.toString();
+        } finally {
+            if (inputManager.isReplaying()) {
+                inputManager.stopReplaying();
+            }
+            engine.stop();
+            engine.cleanup();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("用法: ReplayRunner <录制文件.dat> [...]");
+            System.exit(2);
+        }
+
+        int failures = 0;
+        for (String file : args) {
+            Result result = run(file);
+            Logger.getInstance().flush(); // 先输出回放过程中的引擎日志
+            System.out.println(result);
+            if (!result.isOk()) {
+                failures++;
+            }
+        }
+        System.exit(failures > 0 ? 1 : 0);
+    }
+}
@@ -3,7 +3,8 @@ package com.gameengine.example;
 import com.gameengine.core.GameEngine;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.input.InputManager;
-import com.gameengine.math.Vector2;
+import com.gameengine.input.RecordingHeader;
+import com.gameengine.input.ReplayLibrary;
 import com.gameengine.scene.Scene;
 
 import java.io.File;
@@ -11,59 +12,103 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ReplayScene extends Scene {
+    private static final int VISIBLE_ROWS = 9;
+    private static final long[] DURATION_FILTERS = {0, 10_000, 60_000}; // 最短时长（毫秒）
+
     private GameEngine engine;
     private IRenderer renderer;
     private InputManager inputManager;
-    private List<String> replayFiles;
+    private ReplayLibrary library;
+    private List<ReplayLibrary.Entry> replayFiles;
+    private ReplayLibrary.SortKey sortKey = ReplayLibrary.SortKey.DATE;
+    private int filterIndex = 0;
+    private int shownVersion = -1;
     private int selectedIndex = 0;
+    private int scrollOffset = 0;
 
     public ReplayScene(GameEngine engine) {
         super("ReplayScene");
         this.engine = engine;
         this.renderer = engine.getRenderer();
-        this.inputManager = InputManager.getInstance();
+        this.inputManager = engine.getInputManager();
         this.replayFiles = new ArrayList<>();
-        loadReplayFiles();
+        this.library = new ReplayLibrary(new File("."));
+        library.refreshAsync();
     }
 
-    private void loadReplayFiles() {
-        File dir = new File(".");
-        if (dir.exists() && dir.isDirectory()) {
-            File[] files = dir.listFiles((d, name) -> name.endsWith(".dat"));
-            if (files != null) {
-                for (File file : files) {
-                    replayFiles.add(file.getName());
-                }
+    /**
+     * 回放库有更新或排序、筛选条件改变时重新生成列表
+     */
+    private void refreshList(boolean force) {
+        int version = library.getVersion();
+        if (!force && version == shownVersion) return;
+        shownVersion = version;
+
+        String selected = selectedIndex < replayFiles.size() ? replayFiles.get(selectedIndex).getFileName() : null;
+        replayFiles = library.query(sortKey, DURATION_FILTERS[filterIndex]);
+        selectedIndex = 0;
+        for (int i = 0; i < replayFiles.size(); i++) {
+            if (replayFiles.get(i).getFileName().equals(selected)) {
+                selectedIndex = i;
+                break;
             }
         }
-        if (replayFiles.isEmpty()) {
-            replayFiles.add("(无回放文件)");
+        scrollToSelection();
+    }
+
+    private void scrollToSelection() {
+        if (selectedIndex < scrollOffset) {
+            scrollOffset = selectedIndex;
+        } else if (selectedIndex >= scrollOffset + VISIBLE_ROWS) {
+            scrollOffset = selectedIndex - VISIBLE_ROWS + 1;
         }
     }
 
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
+        refreshList(false);
 
         if (inputManager.isKeyJustPressed(265) || inputManager.isKeyJustPressed(87)) { // 上
             selectedIndex = Math.max(0, selectedIndex - 1);
+            scrollToSelection();
         } else if (inputManager.isKeyJustPressed(264) || inputManager.isKeyJustPressed(83)) { // 下
-            selectedIndex = Math.min(replayFiles.size() - 1, selectedIndex + 1);
+            selectedIndex = Math.max(0, Math.min(replayFiles.size() - 1, selectedIndex + 1));
+            scrollToSelection();
         } else if (inputManager.isKeyJustPressed(257) || inputManager.isKeyJustPressed(32)) { // 回车/空格
-            if (!replayFiles.get(selectedIndex).equals("(无回放文件)")) {
+            if (!replayFiles.isEmpty()) {
                 startReplay();
             }
+        } else if (inputManager.isKeyJustPressed(70)) { // F: 切换时长筛选
+            filterIndex = (filterIndex + 1) % DURATION_FILTERS.length;
+            refreshList(true);
         } else if (inputManager.isKeyJustPressed(256)) { // ESC
+            library.shutdown();
             engine.setScene(new MenuScene(engine, "MenuScene"));
+        } else {
+            ReplayLibrary.SortKey[] keys = ReplayLibrary.SortKey.values();
+            for (int i = 0; i < keys.length; i++) {
+                if (inputManager.isKeyJustPressed(49 + i)) { // 1-4: 排序方式
+                    sortKey = keys[i];
+                    refreshList(true);
+                    break;
+                }
+            }
         }
     }
 
     private void startReplay() {
-        String filename = replayFiles.get(selectedIndex);
-        inputManager.loadRecording(filename);
-        Scene gameScene = new GameScene(engine);
-        engine.setScene(gameScene);
-        inputManager.startReplaying();
+        String filename = replayFiles.get(selectedIndex).getFileName();
+        library.shutdown();
+        engine.startReplay(filename, new GameScene(engine));
+    }
+
+    private static String describe(ReplayLibrary.Entry entry) {
+        RecordingHeader header = entry.getHeader();
+        long seconds = header.getDuration() / 1000;
+        String score = header.getFinalScore() >= 0 ? String.valueOf(header.getFinalScore()) : "-";
+        return String.format("%s  %d:%02d  %d事件  分数 %s  %tF %<tR", entry.getFileName(),
+            seconds / 60, seconds % 60, header.getEventCount(), score, header.getCreatedAt());
     }
 
     @Override
@@ -78,22 +123,33 @@ public class ReplayScene extends Scene {
         float titleWidth = title.length() * 24 * 0.6f;
         renderer.drawText(title, centerX - titleWidth / 2.0f, 80f, 1f, 1f, 1f, 1.0f, 24);
 
+        String filter = DURATION_FILTERS[filterIndex] > 0 ? ">" + DURATION_FILTERS[filterIndex] / 1000 + "s" : "ALL";
+        String status = "SORT: " + sortKey + " | FILTER: " + filter + " | " + replayFiles.size() + " REPLAYS";
+        float statusWidth = status.length() * 14 * 0.6f;
+        renderer.drawText(status, centerX - statusWidth / 2.0f, 115f, 0.6f, 0.8f, 1f, 1.0f, 14);
+
         float startY = 150f;
-        for (int i = 0; i < replayFiles.size(); i++) {
-            String filename = replayFiles.get(i);
-            float textWidth = filename.length() * 16 * 0.6f;
+        if (replayFiles.isEmpty()) {
+            String empty = library.isLoading() ? "加载中..." : "(无回放文件)";
+            float textWidth = empty.length() * 16 * 0.6f;
+            renderer.drawText(empty, centerX - textWidth / 2.0f, startY, 0.8f, 0.8f, 0.8f, 1.0f, 16);
+        }
+        int end = Math.min(replayFiles.size(), scrollOffset + VISIBLE_ROWS);
+        for (int i = scrollOffset; i < end; i++) {
+            String label = describe(replayFiles.get(i));
+            float textWidth = label.length() * 16 * 0.6f;
             float textX = centerX - textWidth / 2.0f;
-            float textY = startY + i * 40f;
+            float textY = startY + (i - scrollOffset) * 40f;
 
             if (i == selectedIndex) {
                 renderer.drawRect(textX - 10, textY - 8, textWidth + 20, 30, 0.5f, 0.4f, 0.2f, 0.8f);
-                renderer.drawText(filename, textX, textY, 1f, 1f, 0.5f, 1.0f, 16);
+                renderer.drawText(label, textX, textY, 1f, 1f, 0.5f, 1.0f, 16);
             } else {
-                renderer.drawText(filename, textX, textY, 0.8f, 0.8f, 0.8f, 1.0f, 16);
+                renderer.drawText(label, textX, textY, 0.8f, 0.8f, 0.8f, 1.0f, 16);
             }
         }
 
-        String hint = "ARROWS: SELECT | ENTER: PLAY | ESC: BACK";
+        String hint = "ARROWS: SELECT | ENTER: PLAY | 1-4: SORT | F: FILTER | ESC: BACK";
         float hintWidth = hint.length() * 14 * 0.6f;
         renderer.drawText(hint, centerX - hintWidth / 2.0f, height - 60, 0.6f, 0.6f, 0.6f, 1.0f, 14);
     }
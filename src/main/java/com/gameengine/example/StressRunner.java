@@ -0,0 +1,289 @@
+package com.gameengine.example;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.input.InputManager;
+import com.gameengine.util.Logger;
+import com.gameengine.util.Profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 压力测试运行器：逐步增加 StressScene 中的敌人数量，直到帧耗时 p95 超过预算，
+ * 报告每个渲染后端和线程数下可以维持的最大实体数量
+ *
+ * 用法: java com.gameengine.example.StressRunner [--backend HEADLESS,SWING] [--threads 0,1,2,4]
+ *       [--budget 16.6] [--start 16] [--max 100000] [--bullets 10] [--seed 42]
+ *       [--warmup 30] [--frames 120] [--ai-every-frame]
+ * 线程数为 0 时顺序更新，否则使用固定大小的线程池并行更新。
+ * AI 调度器不锁定，按距离降低决策频率并使用时间片；--ai-every-frame 让所有敌人每帧决策，用于对比
+ */
+public class StressRunner {
+
+    /**
+     * 单个后端和线程数组合的测试结果
+     */
+    public static class Result {
+        public final RenderBackend backend;
+        public final int threads;
+        public int maxEnemiesPerType;
+        public int maxEntities;
+        public double p95Ms;
+        public double avgMs;
+        public String error;
+
+        public Result(RenderBackend backend, int threads) {
+            this.backend = backend;
+            this.threads = threads;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("%-8s 线程 %-2d 错误 - %s", backend, threads, error);
+            }
+            return String.format("%-8s 线程 %-2d 最大实体数 %7d (每种敌人 %6d)  p95 %.2fms  平均 %.2fms",
+                backend, threads, maxEntities, maxEnemiesPerType, p95Ms, avgMs);
+        }
+    }
+
+    /**
+     * 单个数量级别的测量结果
+     */
+    private static class Sample {
+        int entities;
+        double p95Ms;
+        double avgMs;
+    }
+
+    private float budgetMs = 1000.0f / 60.0f;
+    private int startPerType = 16;
+    private int maxPerType = 100_000;
+    private float bulletRate = 10;
+    private long seed = 42;
+    private int warmupFrames = 30;
+    private int measureFrames = 120;
+    private boolean aiEveryFrame;
+
+    /**
+     * 在指定后端和线程数下逐步增加敌人，先按倍数增长，超出预算后二分查找
+     */
+    public Result run(RenderBackend backend, int threads) {
+        Result result = new Result(backend, threads);
+        GameEngine engine;
+        try {
+            engine = new GameEngine(800, 600, "StressRunner", backend, new InputManager(), new Profiler());
+        } catch (RuntimeException e) {
+            result.error = e.toString();
+            return result;
+        }
+        engine.getWatchdog().setEnabled(false);
+        engine.getQualityController().setEnabled(false); // 测量完整画质下的帧耗时
+        // 固定步长，保证不同机器上每帧模拟的内容相同
+        engine.setDeterministic(true);
+        StressScene scene = new StressScene(engine, startPerType, bulletRate, seed);
+        engine.setScene(scene);
+        scene.setLogUpdateStats(false);
+        scene.setParallelUpdate(threads > 0);
+        if (threads > 0) {
+            scene.setUpdateThreads(threads);
+        }
+
+        try {
+            if (!engine.start()) {
+                result.error = "引擎初始化失败";
+                return result;
+            }
+            // 固定步长只是为了让每帧的模拟量相同，并行更新本身不可复现，调度器无需锁定
+            scene.getAIScheduler().setLocked(aiEveryFrame);
+
+            int lastOk = 0;
+            int failed = -1;
+            Sample okSample = null;
+            int level = startPerType;
+            while (level <= maxPerType) {
+                Sample sample = measure(engine, scene, level);
+                if (sample == null) break;
+                report(backend, threads, level, sample);
+                if (sample.p95Ms > budgetMs) {
+                    failed = level;
+                    break;
+                }
+                lastOk = level;
+                okSample = sample;
+                level *= 2;
+            }
+
+            // 在最后一个满足预算和第一个超出预算的级别之间二分
+            if (failed > 0) {
+                int lo = lastOk;
+                int hi = failed;
+                while (hi - lo > Math.max(lo / 16, 1)) {
+                    int mid = (lo + hi) / 2;
+                    Sample sample = measure(engine, scene, mid);
+                    if (sample == null) break;
+                    report(backend, threads, mid, sample);
+                    if (sample.p95Ms > budgetMs) {
+                        hi = mid;
+                    } else {
+                        lo = mid;
+                        okSample = sample;
+                    }
+                }
+                lastOk = lo;
+            }
+
+            result.maxEnemiesPerType = lastOk;
+            if (okSample != null) {
+                result.maxEntities = okSample.entities;
+                result.p95Ms = okSample.p95Ms;
+                result.avgMs = okSample.avgMs;
+            }
+        } catch (RuntimeException e) {
+            result.error = e.toString();
+        } finally {
+            engine.stop();
+            engine.cleanup();
+        }
+        return result;
+    }
+
+    /**
+     * 设置敌人数量，预热后测量若干帧的 update + render 耗时
+     */
+    private Sample measure(GameEngine engine, StressScene scene, int perType) {
+        scene.setEnemiesPerType(perType);
+        for (int i = 0; i < warmupFrames; i++) {
+            engine.step();
+            if (!engine.isRunning()) return null;
+        }
+
+        long[] frameTimes = new long[measureFrames];
+        long total = 0;
+        int entities = 0;
+        for (int i = 0; i < measureFrames; i++) {
+            long start = System.nanoTime();
+            engine.step();
+            frameTimes[i] = System.nanoTime() - start;
+            total += frameTimes[i];
+            entities = Math.max(entities, scene.getObjectCount());
+            if (!engine.isRunning()) return null;
+        }
+        Arrays.sort(frameTimes);
+
+        Sample sample = new Sample();
+        sample.entities = entities;
+        sample.p95Ms = frameTimes[Math.min(measureFrames - 1, (int) Math.ceil(measureFrames * 0.95) - 1)] / 1_000_000.0;
+        sample.avgMs = total / 1_000_000.0 / measureFrames;
+        return sample;
+    }
+
+    private void report(RenderBackend backend, int threads, int perType, Sample sample) {
+        System.out.printf("  %s 线程 %d: 每种敌人 %6d, 实体 %7d, p95 %7.2fms, 平均 %7.2fms%s%n",
+            backend, threads, perType, sample.entities, sample.p95Ms, sample.avgMs,
+            sample.p95Ms > budgetMs ? "  超出预算" : "");
+    }
+
+    public void setBudgetMs(float budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    public void setStartPerType(int startPerType) {
+        this.startPerType = Math.max(1, startPerType);
+    }
+
+    public void setMaxPerType(int maxPerType) {
+        this.maxPerType = maxPerType;
+    }
+
+    public void setBulletRate(float bulletRate) {
+        this.bulletRate = bulletRate;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setWarmupFrames(int warmupFrames) {
+        this.warmupFrames = warmupFrames;
+    }
+
+    public void setMeasureFrames(int measureFrames) {
+        this.measureFrames = Math.max(1, measureFrames);
+    }
+
+    /**
+     * 所有敌人每帧在更新中决策（不使用 AI 调度），作为对比基准
+     */
+    public void setAiEveryFrame(boolean aiEveryFrame) {
+        this.aiEveryFrame = aiEveryFrame;
+    }
+
+    public static void main(String[] args) {
+        StressRunner runner = new StressRunner();
+        List<RenderBackend> backends = new ArrayList<>();
+        List<Integer> threadCounts = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--backend":
+                        for (String name : value.split(",")) {
+                            backends.add(RenderBackend.valueOf(name.trim().toUpperCase()));
+                        }
+                        i++;
+                        break;
+                    case "--threads":
+                        for (String count : value.split(",")) {
+                            threadCounts.add(Integer.parseInt(count.trim()));
+                        }
+                        i++;
+                        break;
+                    case "--budget": runner.setBudgetMs(Float.parseFloat(value)); i++; break;
+                    case "--start": runner.setStartPerType(Integer.parseInt(value)); i++; break;
+                    case "--max": runner.setMaxPerType(Integer.parseInt(value)); i++; break;
+                    case "--bullets": runner.setBulletRate(Float.parseFloat(value)); i++; break;
+                    case "--seed": runner.setSeed(Long.parseLong(value)); i++; break;
+                    case "--warmup": runner.setWarmupFrames(Integer.parseInt(value)); i++; break;
+                    case "--frames": runner.setMeasureFrames(Integer.parseInt(value)); i++; break;
+                    case "--ai-every-frame": runner.setAiEveryFrame(true); break;
+                    default:
+                        System.err.println("未知参数: " + args[i]);
+                        System.exit(2);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("参数错误: " + e.getMessage());
+            System.exit(2);
+        }
+
+        if (backends.isEmpty()) {
+            backends.add(RenderBackend.HEADLESS);
+        }
+        if (threadCounts.isEmpty()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            threadCounts.add(0);
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                threadCounts.add(threads);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (RenderBackend backend : backends) {
+            for (int threads : threadCounts) {
+                System.out.println("测试 " + backend + "，线程数 " + threads + " ...");
+                results.add(runner.run(backend, threads));
+            }
+        }
+
+        Logger.getInstance().flush(); // 先输出测试过程中的引擎日志
+        System.out.printf("%n帧预算 %.2fms（p95），每种敌人从 %d 开始增加：%n", runner.budgetMs, runner.startPerType);
+        for (Result result : results) {
+            System.out.println(result);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,284 @@
+package com.gameengine.example;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.GameObjectPool;
+import com.gameengine.core.Prefab;
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.AIAgent;
+import com.gameengine.scene.FlowField;
+import com.gameengine.scene.Scene;
+import com.gameengine.util.Profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 压力测试场景：每种敌人数量、子弹频率和随机种子可配置，没有敌人上限，
+ * 玩家不会死亡，用于测量引擎在不同实体数量下的帧耗时
+ */
+public class StressScene extends Scene {
+    private static final String[] ENEMY_IMAGES = {"snake", "minion", "Scorpion"};
+    private static final float[] ENEMY_SIZES = {40, 35, 45};
+    private static final float[] ENEMY_SPEEDS = {100, 150, 60};
+    private static final float[] ENEMY_FORCES = {100f, 180f, 60f};
+    private static final float[] ENEMY_MASSES = {0.5f, 0.3f, 0.8f};
+    private static final float[] ENEMY_FRICTIONS = {0.98f, 0.95f, 0.99f};
+    private static final float FLOW_CELL_SIZE = 20f;
+
+    private final GameEngine engine;
+    private final long seed;
+    private IRenderer renderer;
+    private Random random;
+    private GameLogic gameLogic;
+    private GameObject player;
+    private TransformComponent playerTransform;
+    private final List<List<GameObject>> enemiesByType = new ArrayList<>();
+    private Prefab[] enemyPrefabs;
+    private int enemiesPerType;
+    private float bulletRate;
+    private float bulletTimer;
+    private Profiler profiler;
+    private int secPhysics, secCollisions, secSpawn;
+
+    public StressScene(GameEngine engine, int enemiesPerType, float bulletRate, long seed) {
+        super("StressScene");
+        this.engine = engine;
+        this.enemiesPerType = enemiesPerType;
+        this.bulletRate = bulletRate;
+        this.seed = seed;
+        for (int i = 0; i < ENEMY_IMAGES.length; i++) {
+            enemiesByType.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        this.renderer = engine.getRenderer();
+        this.random = new Random(seed);
+        this.gameLogic = new GameLogic(this, engine.getInputManager());
+        this.profiler = engine.getProfiler();
+        this.secPhysics = profiler.section("Physics");
+        this.secCollisions = profiler.section("Collisions");
+        this.secSpawn = profiler.section("Spawn");
+        this.bulletTimer = 0;
+        getAIScheduler().setFocusName("Player");
+        getAIScheduler().setFlowField(new FlowField(renderer.getWidth(), renderer.getHeight(), FLOW_CELL_SIZE));
+        getAIScheduler().setFlowFieldAsync(true);
+        this.enemyPrefabs = new Prefab[ENEMY_IMAGES.length];
+        for (int type = 0; type < enemyPrefabs.length; type++) {
+            enemyPrefabs[type] = enemyPrefab(type);
+        }
+        createPlayer();
+        adjustEnemies();
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+
+        profiler.begin(secPhysics);
+        gameLogic.updatePhysics();
+        profiler.end(secPhysics);
+
+        profiler.begin(secCollisions);
+        gameLogic.checkCollisions();
+        profiler.end(secCollisions);
+
+        profiler.begin(secSpawn);
+        adjustEnemies();
+        if (bulletRate > 0) {
+            bulletTimer += deltaTime;
+            float interval = 1.0f / bulletRate;
+            while (bulletTimer >= interval) {
+                bulletTimer -= interval;
+                fireBullet();
+            }
+        }
+        profiler.end(secSpawn);
+    }
+
+    @Override
+    public void render() {
+        renderer.drawRect(0, 0, 800, 600, 0.1f, 0.1f, 0.2f, 1.0f);
+        super.render();
+    }
+
+    @Override
+    public IRenderer getRenderer() {
+        return renderer;
+    }
+
+    @Override
+    public void removeGameObject(GameObject gameObject) {
+        super.removeGameObject(gameObject);
+        for (List<GameObject> enemies : enemiesByType) {
+            if (enemies.remove(gameObject)) break;
+        }
+    }
+
+    @Override
+    public int getEnemyCount() {
+        int count = 0;
+        for (List<GameObject> enemies : enemiesByType) {
+            count += enemies.size();
+        }
+        return count;
+    }
+
+    @Override
+    public List<GameObjectPool> getPools() {
+        return List.of(gameLogic.getBulletPool());
+    }
+
+    @Override
+    public void onEnemyLimitExceeded() {
+        // 压力测试中玩家不会死亡
+    }
+
+    /**
+     * 设置每种敌人的数量，下一帧补齐或移除多余的敌人
+     */
+    public void setEnemiesPerType(int enemiesPerType) {
+        this.enemiesPerType = enemiesPerType;
+    }
+
+    public int getEnemiesPerType() {
+        return enemiesPerType;
+    }
+
+    /**
+     * 设置每秒发射的子弹数，0 表示不发射
+     */
+    public void setBulletRate(float bulletRate) {
+        this.bulletRate = bulletRate;
+    }
+
+    public float getBulletRate() {
+        return bulletRate;
+    }
+
+    /**
+     * 补齐被击杀的敌人，或按新的数量增减敌人
+     */
+    private void adjustEnemies() {
+        for (int type = 0; type < enemiesByType.size(); type++) {
+            List<GameObject> enemies = enemiesByType.get(type);
+            int missing = enemiesPerType - enemies.size();
+            if (missing > 0) {
+                final int enemyType = type;
+                enemies.addAll(spawnBatch(enemyPrefabs[type], missing, (enemy, i) -> placeEnemy(enemy, enemyType)));
+            }
+            while (enemies.size() > enemiesPerType) {
+                GameObject enemy = enemies.remove(enemies.size() - 1);
+                super.removeGameObject(enemy);
+            }
+        }
+    }
+
+    private void createPlayer() {
+        player = new GameObject("Player");
+        playerTransform = player.addComponent(new TransformComponent(new Vector2(400, 300)));
+        PhysicsComponent physics = player.addComponent(new PhysicsComponent(1.0f));
+        physics.setFriction(0.9f);
+        RenderComponent render = player.addComponent(new RenderComponent("src/resource/cyan-right.png", new Vector2(40, 40)));
+        render.setRenderer(renderer);
+        addGameObject(player);
+    }
+
+    private void fireBullet() {
+        GameObject bullet = gameLogic.createBullet();
+        Vector2 position = playerTransform.getPosition();
+        bullet.getComponent(TransformComponent.class).setPosition(new Vector2(position.x + 20, position.y + 20));
+        double angle = random.nextDouble() * Math.PI * 2;
+        bullet.getComponent(PhysicsComponent.class).setVelocity(
+            (float) Math.cos(angle) * 400f, (float) Math.sin(angle) * 400f);
+        addGameObject(bullet);
+    }
+
+    /**
+     * 与 GameScene 的三种敌人行为相同，但直接引用玩家而不是按名称查找
+     */
+    private Prefab enemyPrefab(int type) {
+        final String image = "src/resource/" + ENEMY_IMAGES[type];
+        final String leftImage = image + "-left.png";
+        final float size = ENEMY_SIZES[type];
+        return new Prefab("Enemy", () -> new StressEnemy(type))
+            .with(TransformComponent::new)
+            .with(() -> {
+                RenderComponent render = new RenderComponent(leftImage, new Vector2(size, size));
+                render.setRenderer(renderer);
+                return render;
+            })
+            .with(() -> {
+                PhysicsComponent physics = new PhysicsComponent(ENEMY_MASSES[type]);
+                physics.setFriction(ENEMY_FRICTIONS[type]);
+                return physics;
+            });
+    }
+
+    /**
+     * 随机放置敌人并赋予初始速度
+     */
+    private void placeEnemy(GameObject enemy, int type) {
+        enemy.getComponent(TransformComponent.class).setPosition(
+            new Vector2(random.nextFloat() * 800, random.nextFloat() * 600));
+        float speed = ENEMY_SPEEDS[type];
+        enemy.getComponent(PhysicsComponent.class).setVelocity(
+            (random.nextFloat() - 0.5f) * speed, (random.nextFloat() - 0.5f) * speed);
+    }
+
+    /**
+     * 朝玩家移动的敌人，朝向由 AI 调度器决定多久重新计算一次
+     */
+    private final class StressEnemy extends GameObject implements AIAgent {
+        private final float force;
+        private final String leftImage;
+        private final String rightImage;
+        private Vector2 direction;
+
+        StressEnemy(int type) {
+            super("Enemy");
+            String image = "src/resource/" + ENEMY_IMAGES[type];
+            this.force = ENEMY_FORCES[type];
+            this.leftImage = image + "-left.png";
+            this.rightImage = image + "-right.png";
+        }
+
+        @Override
+        public void initialize() {
+            getAIScheduler().register(this);
+        }
+
+        @Override
+        public void think() {
+            TransformComponent enemyTransform = getComponent(TransformComponent.class);
+            RenderComponent render = getComponent(RenderComponent.class);
+            if (enemyTransform == null || render == null) {
+                direction = null;
+                return;
+            }
+            direction = getAIScheduler().steer(enemyTransform.getPosition(), playerTransform.getPosition());
+            render.setImagePath(direction.x > 0 ? rightImage : leftImage);
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            if (getAIScheduler().isLocked()) {
+                think();
+            }
+            PhysicsComponent physics = getComponent(PhysicsComponent.class);
+            if (direction != null && physics != null) {
+                physics.applyForce(direction.multiply(force));
+            }
+            updateComponents(deltaTime);
+        }
+    }
+}
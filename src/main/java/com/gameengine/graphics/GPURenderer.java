@@ -1,6 +1,7 @@
 package com.gameengine.graphics;
 
 import com.gameengine.input.InputManager;
+import com.gameengine.util.Logger;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
@@ -20,6 +21,7 @@ import javax.imageio.ImageIO;
 import java.io.File;
 
 public class GPURenderer implements IRenderer {
+    private static final Logger log = Logger.getInstance();
     private int width;
     private int height;
     private String title;
@@ -31,13 +33,20 @@ public class GPURenderer implements IRenderer {
     private Font font;
     private int fontSize;
     private boolean texturesPreloaded;
+    private int drawCalls;
+    private int lastDrawCalls;
+    private float circleDetail = 1.0f;
     private static final String PRELOAD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?/~` ";
 
     public GPURenderer(int width, int height, String title) {
+        this(width, height, title, InputManager.getInstance());
+    }
+
+    public GPURenderer(int width, int height, String title, InputManager inputManager) {
         this.width = width;
         this.height = height;
         this.title = title;
-        this.inputManager = InputManager.getInstance();
+        this.inputManager = inputManager;
         this.initialized = false;
         this.window = 0;
         this.charTextures = new HashMap<>();
@@ -112,7 +121,7 @@ public class GPURenderer implements IRenderer {
             String glRenderer = GL11.glGetString(GL11.GL_RENDERER);
             
             if (glVersion == null || glRenderer == null) {
-                System.err.println("OpenGL上下文无效：无法获取版本/渲染器字符串");
+                log.error("OpenGL上下文无效：无法获取版本/渲染器字符串");
             }
             
             initialized = true;
@@ -121,11 +130,11 @@ public class GPURenderer implements IRenderer {
             maxTex[0] = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
 
             int testTex = createTestTexture();
-            System.out.println("测试纹理创建: id=" + testTex + (testTex > 0 ? " (OK)" : " (失败)"));
-            System.out.println("GPU渲染器初始化成功！");
-            System.out.println("OpenGL版本: " + glVersion);
-            System.out.println("渲染器: " + glRenderer);
-            System.out.println("最大纹理尺寸: " + maxTex[0]);
+            log.info("测试纹理创建: id=" + testTex + (testTex > 0 ? " (OK)" : " (失败)"));
+            log.info("GPU渲染器初始化成功！");
+            log.info("OpenGL版本: " + glVersion);
+            log.info("渲染器: " + glRenderer);
+            log.info("最大纹理尺寸: " + maxTex[0]);
             
             // 仅在上下文确认有效后再预加载纹理
             preloadTextures();
@@ -183,6 +192,8 @@ public class GPURenderer implements IRenderer {
     
     @Override
     public void endFrame() {
+        lastDrawCalls = drawCalls;
+        drawCalls = 0;
         if (!initialized) return;
         GLFW.glfwSwapBuffers(window);
     }
@@ -201,6 +212,7 @@ public class GPURenderer implements IRenderer {
         GL11.glVertex2f(x + w, y + h);
         GL11.glVertex2f(x, y + h);
         GL11.glEnd();
+        drawCalls++;
     }
     
     @Override
@@ -221,6 +233,7 @@ public class GPURenderer implements IRenderer {
             GL11.glVertex2f(px, py);
         }
         GL11.glEnd();
+        drawCalls++;
     }
     
     @Override
@@ -236,6 +249,7 @@ public class GPURenderer implements IRenderer {
         GL11.glVertex2f(x1, y1);
         GL11.glVertex2f(x2, y2);
         GL11.glEnd();
+        drawCalls++;
     }
     
     @Override
@@ -277,6 +291,7 @@ public class GPURenderer implements IRenderer {
                 GL11.glTexCoord2f(0.0f, 1.0f);
                 GL11.glVertex2f(currentX, y + charHeight);
                 GL11.glEnd();
+                drawCalls++;
             }
             
             currentX += charWidth + spacing;
@@ -313,6 +328,7 @@ public class GPURenderer implements IRenderer {
         GL11.glTexCoord2f(0.0f, 1.0f);
         GL11.glVertex2f(x, y + height);
         GL11.glEnd();
+        drawCalls++;
 
         GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
         GL11.glDisable(GL11.GL_TEXTURE_2D);
@@ -334,13 +350,13 @@ public class GPURenderer implements IRenderer {
         try {
             File file = new File(imagePath);
             if (!file.exists()) {
-                System.err.println("图片文件不存在: " + imagePath);
+                log.error("图片文件不存在: " + imagePath);
                 return 0;
             }
 
             BufferedImage img = ImageIO.read(file);
             if (img == null) {
-                System.err.println("无法加载图片: " + imagePath);
+                log.error("无法加载图片: " + imagePath);
                 return 0;
             }
 
@@ -367,7 +383,7 @@ public class GPURenderer implements IRenderer {
 
             int textureId = GL11.glGenTextures();
             if (textureId <= 0) {
-                System.err.println("无法生成纹理ID: " + imagePath);
+                log.error("无法生成纹理ID: " + imagePath);
                 return 0;
             }
 
@@ -380,7 +396,7 @@ public class GPURenderer implements IRenderer {
 
             int error = GL11.glGetError();
             if (error != GL11.GL_NO_ERROR) {
-                System.err.println("加载图片纹理失败: " + imagePath + ", OpenGL错误: 0x" + Integer.toHexString(error));
+                log.error("加载图片纹理失败: " + imagePath + ", OpenGL错误: 0x" + Integer.toHexString(error));
                 GL11.glDeleteTextures(textureId);
                 return 0;
             }
@@ -388,11 +404,11 @@ public class GPURenderer implements IRenderer {
             GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
             GL11.glDisable(GL11.GL_TEXTURE_2D);
 
-            System.out.println("成功加载图片纹理: " + imagePath + " (" + imgWidth + "x" + imgHeight + ")");
+            log.info("成功加载图片纹理: " + imagePath + " (" + imgWidth + "x" + imgHeight + ")");
             return textureId;
 
         } catch (Exception e) {
-            System.err.println("加载图片异常: " + imagePath + " - " + e.getMessage());
+            log.error("加载图片异常: " + imagePath + " - " + e.getMessage());
             return 0;
         }
     }
@@ -426,7 +442,7 @@ public class GPURenderer implements IRenderer {
         }
         
         texturesPreloaded = true;
-        System.out.println("预加载字符纹理完成: " + loaded + " 成功, " + failed + " 失败");
+        log.info("预加载字符纹理完成: " + loaded + " 成功, " + failed + " 失败");
     }
     
     private int getCharTexture(char c) {
@@ -497,7 +513,7 @@ public class GPURenderer implements IRenderer {
             
             int prevError = GL11.glGetError();
             while (prevError != GL11.GL_NO_ERROR) {
-                System.err.println("Clearing OpenGL error before genTextures for '" + c + "': " + Integer.toHexString(prevError));
+                log.error("Clearing OpenGL error before genTextures for '" + c + "': " + Integer.toHexString(prevError));
                 prevError = GL11.glGetError();
             }
             
@@ -512,21 +528,21 @@ public class GPURenderer implements IRenderer {
             
             if (textureId <= 0) {
                 int genError = GL11.glGetError();
-                System.err.println("glGenTextures returned 0 or negative for char '" + c + "'");
+                log.error("glGenTextures returned 0 or negative for char '" + c + "'");
                 if (genError != GL11.GL_NO_ERROR) {
-                    System.err.println("OpenGL error code: 0x" + Integer.toHexString(genError));
+                    log.error("OpenGL error code: 0x" + Integer.toHexString(genError));
                 } else {
-                    System.err.println("No OpenGL error reported, but textureId is invalid. Possible causes:");
-                    System.err.println("  - OpenGL context not properly initialized");
-                    System.err.println("  - Reached texture limit");
-                    System.err.println("  - Graphics driver issue");
+                    log.error("No OpenGL error reported, but textureId is invalid. Possible causes:");
+                    log.error("  - OpenGL context not properly initialized");
+                    log.error("  - Reached texture limit");
+                    log.error("  - Graphics driver issue");
                 }
                 return 0;
             }
             
             int genError = GL11.glGetError();
             if (genError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error after glGenTextures for '" + c + "': 0x" + Integer.toHexString(genError));
+                log.error("OpenGL error after glGenTextures for '" + c + "': 0x" + Integer.toHexString(genError));
                 GL11.glDeleteTextures(textureId);
                 return 0;
             }
@@ -535,7 +551,7 @@ public class GPURenderer implements IRenderer {
             
             int bindError = GL11.glGetError();
             if (bindError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error binding texture for '" + c + "': " + Integer.toHexString(bindError));
+                log.error("OpenGL error binding texture for '" + c + "': " + Integer.toHexString(bindError));
                 GL11.glDeleteTextures(textureId);
                 return 0;
             }
@@ -548,7 +564,7 @@ public class GPURenderer implements IRenderer {
             
             int texError = GL11.glGetError();
             if (texError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error uploading texture data for '" + c + "': " + Integer.toHexString(texError));
+                log.error("OpenGL error uploading texture data for '" + c + "': " + Integer.toHexString(texError));
                 GL11.glDeleteTextures(textureId);
                 return 0;
             }
@@ -558,7 +574,7 @@ public class GPURenderer implements IRenderer {
             
             return textureId;
         } catch (Exception e) {
-            System.err.println("Exception creating texture for char '" + c + "': " + e.getMessage());
+            log.error("Exception creating texture for char '" + c + "': " + e.getMessage());
             e.printStackTrace();
             return 0;
         }
@@ -592,7 +608,7 @@ public class GPURenderer implements IRenderer {
             GL11.glDisable(GL11.GL_TEXTURE_2D);
             return id;
         } catch (Throwable t) {
-            System.err.println("测试纹理创建异常: " + t.getMessage());
+            log.error("测试纹理创建异常: " + t.getMessage());
             return 0;
         }
     }
@@ -631,6 +647,7 @@ public class GPURenderer implements IRenderer {
         GL11.glVertex2f(x2 - nx, y2 - ny);
         GL11.glVertex2f(x2 + nx, y2 + ny);
         GL11.glEnd();
+        drawCalls++;
         GL11.glPopMatrix();
     }
     
@@ -693,5 +710,19 @@ public class GPURenderer implements IRenderer {
     public String getTitle() {
         return title;
     }
-}
 
+    @Override
+    public int getDrawCallCount() {
+        return lastDrawCalls;
+    }
+
+    @Override
+    public void setCircleDetail(float detail) {
+        this.circleDetail = Math.max(0.1f, Math.min(1.0f, detail));
+    }
+
+    @Override
+    public float getCircleDetail() {
+        return circleDetail;
+    }
+}
@@ -0,0 +1,84 @@
+package com.gameengine.graphics;
+
+/**
+ * 无窗口渲染器，所有绘制调用均为空操作（用于回放校验和性能测试）
+ */
+public class HeadlessRenderer implements IRenderer {
+    private int width;
+    private int height;
+    private String title;
+    private boolean closed;
+    private int drawCalls;
+    private int lastDrawCalls;
+    private float circleDetail = 1.0f;
+
+    public HeadlessRenderer(int width, int height, String title) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.closed = false;
+    }
+
+    public void beginFrame() {
+        drawCalls = 0;
+    }
+
+    public void endFrame() {
+        lastDrawCalls = drawCalls;
+    }
+
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        drawCalls++;
+    }
+
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        drawCalls++;
+    }
+
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        drawCalls++;
+    }
+
+    public void drawText(String text, float x, float y, float r, float g, float b, float a, int fontSize) {
+        drawCalls++;
+    }
+
+    public void drawImage(String imagePath, float x, float y, float width, float height) {
+        drawCalls++;
+    }
+
+    public boolean shouldClose() {
+        return closed;
+    }
+
+    public void pollEvents() {
+    }
+
+    public void cleanup() {
+        closed = true;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getDrawCallCount() {
+        return lastDrawCalls;
+    }
+
+    public void setCircleDetail(float detail) {
+        this.circleDetail = Math.max(0.1f, Math.min(1.0f, detail));
+    }
+
+    public float getCircleDetail() {
+        return circleDetail;
+    }
+}
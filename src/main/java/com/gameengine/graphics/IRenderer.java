@@ -17,5 +17,17 @@ public interface IRenderer {
     int getWidth();
     int getHeight();
     String getTitle();
+
+    /**
+     * 上一帧提交的绘制调用次数
+     */
+    int getDrawCallCount();
+
+    /**
+     * 圆形细分程度（1 为完整精度），画质降低时减少圆形的分段数
+     */
+    void setCircleDetail(float detail);
+
+    float getCircleDetail();
 }
 
@@ -2,6 +2,7 @@ package com.gameengine.graphics;
 
 public enum RenderBackend {
     GPU,
-    SWING
+    SWING,
+    HEADLESS
 }
 
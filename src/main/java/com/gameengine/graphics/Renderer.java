@@ -21,12 +21,19 @@ public class Renderer extends JFrame implements IRenderer {
     private String title;
     private GamePanel gamePanel;
     private InputManager inputManager;
+    private int drawCalls;
+    private int lastDrawCalls;
+    private float circleDetail = 1.0f;
     
     public Renderer(int width, int height, String title) {
+        this(width, height, title, InputManager.getInstance());
+    }
+
+    public Renderer(int width, int height, String title, InputManager inputManager) {
         this.width = width;
         this.height = height;
         this.title = title;
-        this.inputManager = InputManager.getInstance();
+        this.inputManager = inputManager;
         
         initialize();
     }
@@ -97,12 +104,14 @@ public class Renderer extends JFrame implements IRenderer {
      */
     public void beginFrame() {
         gamePanel.clear();
+        drawCalls = 0;
     }
     
     /**
      * 结束渲染帧
      */
     public void endFrame() {
+        lastDrawCalls = drawCalls;
         gamePanel.repaint();
     }
     
@@ -110,6 +119,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制文字（使用当前面板字体，以左上角为原点）
      */
     public void drawText(String text, float x, float y, float r, float g, float b, float a, int fontSize) {
+        drawCalls++;
         gamePanel.addDrawable(new TextDrawable(text, x, y, r, g, b, a, fontSize));
     }
 
@@ -117,6 +127,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制矩形
      */
     public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        drawCalls++;
         gamePanel.addDrawable(new RectDrawable(x, y, width, height, r, g, b, a));
     }
     
@@ -124,6 +135,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制带旋转的矩形（以矩形中心为旋转中心，单位：弧度）
      */
     public void drawRectRotated(float x, float y, float width, float height, float rotation, float r, float g, float b, float a) {
+        drawCalls++;
         gamePanel.addDrawable(new RectDrawable(x, y, width, height, rotation, r, g, b, a));
     }
     
@@ -131,6 +143,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制圆形
      */
     public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        drawCalls++;
         gamePanel.addDrawable(new CircleDrawable(x, y, radius, r, g, b, a));
     }
     
@@ -138,6 +151,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制线条
      */
     public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        drawCalls++;
         gamePanel.addDrawable(new LineDrawable(x1, y1, x2, y2, r, g, b, a));
     }
 
@@ -145,6 +159,7 @@ public class Renderer extends JFrame implements IRenderer {
      * 绘制图片
      */
     public void drawImage(String imagePath, float x, float y, float width, float height) {
+        drawCalls++;
         gamePanel.addDrawable(new ImageDrawable(imagePath, x, y, width, height));
     }
     
@@ -181,6 +196,18 @@ public class Renderer extends JFrame implements IRenderer {
     public String getTitle() {
         return title;
     }
+
+    public int getDrawCallCount() {
+        return lastDrawCalls;
+    }
+
+    public void setCircleDetail(float detail) {
+        this.circleDetail = Math.max(0.1f, Math.min(1.0f, detail));
+    }
+
+    public float getCircleDetail() {
+        return circleDetail;
+    }
     
     /**
      * 游戏面板类
@@ -1,12 +1,21 @@
 package com.gameengine.graphics;
 
+import com.gameengine.input.InputManager;
+
 public class RendererFactory {
     public static IRenderer createRenderer(RenderBackend backend, int width, int height, String title) {
+        return createRenderer(backend, width, height, title, InputManager.getInstance());
+    }
+
+    public static IRenderer createRenderer(RenderBackend backend, int width, int height, String title,
+                                           InputManager inputManager) {
         switch (backend) {
             case GPU:
-                return new GPURenderer(width, height, title);
+                return new GPURenderer(width, height, title, inputManager);
             case SWING:
-                return new Renderer(width, height, title);
+                return new Renderer(width, height, title, inputManager);
+            case HEADLESS:
+                return new HeadlessRenderer(width, height, title);
             default:
                 throw new IllegalArgumentException("Unknown render backend: " + backend);
         }
@@ -1,14 +1,18 @@
 package com.gameengine.input;
 
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.SceneSnapshot;
+import com.gameengine.util.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.io.*;
 
 /**
  * 输入管理器，处理键盘和鼠标输入
  */
 public class InputManager {
+    private static final Logger log = Logger.getInstance();
     private static InputManager instance;
     private Set<Integer> pressedKeys;
     private Set<Integer> justPressedKeys;
@@ -16,6 +20,7 @@ public class InputManager {
     private Vector2 mousePosition;
     private boolean[] mouseButtons;
     private boolean[] mouseButtonsJustPressed;
+    private Set<Integer> controlKeysJustPressed;
     private long startTime;
 
     public enum InputMode {
@@ -28,7 +33,9 @@ public class InputManager {
     }
 
     private static class InputEvent implements Serializable {
+        private static final long serialVersionUID = 7904758558912336290L;
         long timestamp;
+        long tick;
         EventType type;
         int keyCode;
         int button;
@@ -40,7 +47,37 @@ public class InputManager {
         }
     }
 
+    /**
+     * 回放关键帧：某一时刻的场景快照及输入状态
+     */
+    private static class Keyframe implements Serializable {
+        private static final long serialVersionUID = 1L;
+        long timestamp;
+        long tick;
+        int eventIndex;
+        SceneSnapshot snapshot;
+        int[] pressedKeys;
+        float mouseX, mouseY;
+        boolean[] mouseButtons;
+    }
+
+    /**
+     * 录制文件内容
+     */
+    private static class Recording implements Serializable {
+        private static final long serialVersionUID = 1L;
+        List<InputEvent> events;
+        List<Keyframe> keyframes;
+        boolean deterministic;
+        float tickRate;
+        long seed;
+        long tickCount;
+        long[] stateHashes;
+    }
+
     private List<InputEvent> events;
+    private List<Keyframe> keyframes;
+    private long keyframeInterval = 5000; // 关键帧间隔（毫秒）
     private int replayIndex;
     private long replayStartTime;
     private long lastMouseMoveTime;
@@ -48,16 +85,34 @@ public class InputManager {
     private boolean replayPaused = false;
     private long pauseStartTime = 0;
     private long totalPausedTime = 0;
+
+    // 确定性模式：实时输入先排队，在帧边界按模拟帧号应用和录制
+    private boolean deterministic = false;
+    private float tickRate = 120.0f;
+    private long tick;
+    private final Queue<InputEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private volatile int lastQueueDepth;
+    private long recordingSeed;
+    private long recordedTickCount;
+    private long[] stateHashes = new long[0];
+    private int stateHashCount;
+    private long divergenceTick = -1;
+    private boolean deterministicRecording;
     
-    private InputManager() {
+    /**
+     * 创建独立的输入上下文（例如并行回放），窗口游戏使用 getInstance()
+     */
+    public InputManager() {
         pressedKeys = new HashSet<>();
         justPressedKeys = new HashSet<>();
         keyStates = new HashMap<>();
         mousePosition = new Vector2();
         mouseButtons = new boolean[3]; // 左键、右键、中键
         mouseButtonsJustPressed = new boolean[3];
+        controlKeysJustPressed = new HashSet<>();
         startTime = System.currentTimeMillis();
         events = new ArrayList<InputEvent>();
+        keyframes = new ArrayList<>();
         currentMode = InputMode.NORMAL;
     }
     
@@ -82,46 +137,28 @@ public class InputManager {
      * 处理键盘按下事件
      */
     public void onKeyPressed(int keyCode) {
-        if (currentMode == InputMode.RECORDING) {
-            InputEvent event = new InputEvent(EventType.KEY_PRESSED, System.currentTimeMillis() - startTime);
-            event.keyCode = keyCode;
-            events.add(event);
-        }
-        if (!pressedKeys.contains(keyCode)) {
-            justPressedKeys.add(keyCode);
-        }
-        pressedKeys.add(keyCode);
-        keyStates.put(keyCode, true);
+        controlKeysJustPressed.add(keyCode);
+        InputEvent event = new InputEvent(EventType.KEY_PRESSED, System.currentTimeMillis() - startTime);
+        event.keyCode = keyCode;
+        handleLiveEvent(event);
     }
 
     /**
      * 处理键盘释放事件
      */
     public void onKeyReleased(int keyCode) {
-        if (currentMode == InputMode.RECORDING) {
-            InputEvent event = new InputEvent(EventType.KEY_RELEASED, System.currentTimeMillis() - startTime);
-            event.keyCode = keyCode;
-            events.add(event);
-        }
-        pressedKeys.remove(keyCode);
-        keyStates.put(keyCode, false);
+        InputEvent event = new InputEvent(EventType.KEY_RELEASED, System.currentTimeMillis() - startTime);
+        event.keyCode = keyCode;
+        handleLiveEvent(event);
     }
 
     /**
      * 处理鼠标移动事件
      */
     public void onMouseMoved(float x, float y) {
-        if (currentMode == InputMode.RECORDING) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastMouseMoveTime > 50) {
-                InputEvent event = new InputEvent(EventType.MOUSE_MOVED, currentTime - startTime);
-                event.position = new Vector2(x, y);
-                events.add(event);
-                lastMouseMoveTime = currentTime;
-            }
-        }
-        mousePosition.x = x;
-        mousePosition.y = y;
+        InputEvent event = new InputEvent(EventType.MOUSE_MOVED, System.currentTimeMillis() - startTime);
+        event.position = new Vector2(x, y);
+        handleLiveEvent(event);
     }
 
     /**
@@ -129,15 +166,9 @@ public class InputManager {
      */
     public void onMousePressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
-            if (currentMode == InputMode.RECORDING) {
-                InputEvent event = new InputEvent(EventType.MOUSE_PRESSED, System.currentTimeMillis() - startTime);
-                event.button = button;
-                events.add(event);
-            }
-            if (!mouseButtons[button]) {
-                mouseButtonsJustPressed[button] = true;
-            }
-            mouseButtons[button] = true;
+            InputEvent event = new InputEvent(EventType.MOUSE_PRESSED, System.currentTimeMillis() - startTime);
+            event.button = button;
+            handleLiveEvent(event);
         }
     }
 
@@ -146,15 +177,49 @@ public class InputManager {
      */
     public void onMouseReleased(int button) {
         if (button >= 0 && button < mouseButtons.length) {
-            if (currentMode == InputMode.RECORDING) {
-                InputEvent event = new InputEvent(EventType.MOUSE_RELEASED, System.currentTimeMillis() - startTime);
-                event.button = button;
+            InputEvent event = new InputEvent(EventType.MOUSE_RELEASED, System.currentTimeMillis() - startTime);
+            event.button = button;
+            handleLiveEvent(event);
+        }
+    }
+
+    /**
+     * 处理实时输入：回放时忽略，确定性模式下排队到帧边界，否则立即录制并应用
+     */
+    private void handleLiveEvent(InputEvent event) {
+        if (currentMode == InputMode.REPLAYING) {
+            return;
+        }
+        if (deterministic) {
+            pendingEvents.add(event);
+            return;
+        }
+        if (currentMode == InputMode.RECORDING) {
+            if (event.type != EventType.MOUSE_MOVED) {
+                events.add(event);
+            } else if (event.timestamp + startTime - lastMouseMoveTime > 50) {
+                // 鼠标移动采样，避免过多事件
                 events.add(event);
+                lastMouseMoveTime = event.timestamp + startTime;
             }
-            mouseButtons[button] = false;
         }
+        applyEvent(event);
     }
-    
+
+    /**
+     * 检查控制按键是否刚刚被实际按下（不受回放影响，用于录制/回放快捷键）
+     */
+    public boolean isControlKeyJustPressed(int keyCode) {
+        return controlKeysJustPressed.contains(keyCode);
+    }
+
+    /**
+     * 控制按键处理完毕后清空
+     */
+    public void clearControlKeys() {
+        controlKeysJustPressed.clear();
+    }
+
     /**
      * 检查按键是否被按下
      */
@@ -222,37 +287,52 @@ public class InputManager {
      * 开始录制
      */
     public void startRecording() {
+        startRecording(0);
+    }
+
+    /**
+     * 开始录制，并记录场景使用的随机数种子
+     */
+    public void startRecording(long seed) {
         events.clear();
+        keyframes.clear();
         startTime = System.currentTimeMillis();
         lastMouseMoveTime = 0;
+        tick = 0;
+        recordingSeed = seed;
+        stateHashCount = 0;
+        deterministicRecording = deterministic;
         currentMode = InputMode.RECORDING;
-        System.out.println("开始录制输入...");
+        log.info("开始录制输入...");
     }
 
     /**
      * 停止录制
      */
     public void stopRecording() {
+        recordedTickCount = tick;
         currentMode = InputMode.NORMAL;
-        System.out.println("停止录制，共录制 " + events.size() + " 个事件");
+        log.info("停止录制，共录制 " + events.size() + " 个事件");
     }
 
     /**
      * 开始回放
      */
     public void startReplaying() {
-        if (events.isEmpty()) {
-            System.out.println("没有可回放的录制数据");
+        if (events.isEmpty() && recordedTickCount == 0) {
+            log.info("没有可回放的录制数据");
             return;
         }
         replayIndex = 0;
+        tick = 0;
+        divergenceTick = -1;
         replayStartTime = System.currentTimeMillis();
         replaySpeed = 1.0f;
         replayPaused = false;
         totalPausedTime = 0;
         currentMode = InputMode.REPLAYING;
         clearInputState();
-        System.out.println("开始回放，共 " + events.size() + " 个事件");
+        log.info("开始回放，共 " + events.size() + " 个事件");
     }
 
     /**
@@ -261,13 +341,15 @@ public class InputManager {
     public void stopReplaying() {
         currentMode = InputMode.NORMAL;
         clearInputState();
-        System.out.println("停止回放");
+        log.info("停止回放");
     }
 
     /**
      * 更新回放状态
      */
     public void updateReplay() {
+        if (deterministic) return; // 确定性回放由 endTick 推进
+
         if (currentMode != InputMode.REPLAYING || replayIndex >= events.size()) {
             if (currentMode == InputMode.REPLAYING && replayIndex >= events.size()) {
                 stopReplaying();
@@ -278,10 +360,16 @@ public class InputManager {
         if (replayPaused) return;
 
         long currentReplayTime = (long)((System.currentTimeMillis() - replayStartTime - totalPausedTime) * replaySpeed);
+        advanceReplay(currentReplayTime);
+    }
 
+    /**
+     * 应用时间戳不晚于指定回放时间的所有事件（不依赖实际时钟，用于快进）
+     */
+    public void advanceReplay(long replayTime) {
         while (replayIndex < events.size()) {
             InputEvent event = events.get(replayIndex);
-            if (event.timestamp > currentReplayTime) {
+            if (event.timestamp > replayTime) {
                 break;
             }
 
@@ -290,6 +378,231 @@ public class InputManager {
         }
     }
 
+    /**
+     * 结束一个模拟帧（确定性模式）：回放时应用本帧录制的事件，否则应用并录制排队的实时输入
+     */
+    public void endTick() {
+        if (currentMode == InputMode.REPLAYING) {
+            while (replayIndex < events.size() && events.get(replayIndex).tick <= tick) {
+                applyEvent(events.get(replayIndex));
+                replayIndex++;
+            }
+        } else {
+            // 同一帧内的多次鼠标移动只保留最后一次
+            InputEvent lastMove = null;
+            InputEvent event;
+            int drained = 0;
+            while ((event = pendingEvents.poll()) != null) {
+                drained++;
+                if (event.type == EventType.MOUSE_MOVED) {
+                    lastMove = event;
+                } else {
+                    commitTickEvent(event);
+                }
+            }
+            if (lastMove != null) {
+                commitTickEvent(lastMove);
+            }
+            lastQueueDepth = drained;
+        }
+
+        tick++;
+        if (currentMode == InputMode.REPLAYING && tick >= recordedTickCount && replayIndex >= events.size()) {
+            stopReplaying();
+        }
+    }
+
+    private void commitTickEvent(InputEvent event) {
+        if (currentMode == InputMode.RECORDING) {
+            event.tick = tick;
+            event.timestamp = ticksToMillis(tick);
+            events.add(event);
+        }
+        applyEvent(event);
+    }
+
+    /**
+     * 上一个帧边界时排队等待应用的实时输入事件数
+     */
+    public int getInputQueueDepth() {
+        return lastQueueDepth;
+    }
+
+    /**
+     * 记录当前帧结束时的场景状态哈希（确定性录制）
+     */
+    public void recordStateHash(long hash) {
+        if (currentMode != InputMode.RECORDING || !deterministic) return;
+        if (stateHashCount == stateHashes.length) {
+            stateHashes = Arrays.copyOf(stateHashes, Math.max(1024, stateHashes.length * 2));
+        }
+        stateHashes[stateHashCount++] = hash;
+    }
+
+    /**
+     * 校验当前帧的场景状态哈希，首次不一致时返回false
+     */
+    public boolean verifyStateHash(long hash) {
+        if (currentMode != InputMode.REPLAYING || tick >= stateHashCount) return true;
+        if (stateHashes[(int) tick] == hash) return true;
+        if (divergenceTick < 0) {
+            divergenceTick = tick;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 获取回放首次与录制状态不一致的帧号，未发生时返回-1
+     */
+    public long getDivergenceTick() {
+        return divergenceTick;
+    }
+
+    /**
+     * 获取最后一次回放/录制中的帧哈希（仅确定性录制）
+     */
+    public long getRecordedStateHash(long tickIndex) {
+        return tickIndex >= 0 && tickIndex < stateHashCount ? stateHashes[(int) tickIndex] : 0;
+    }
+
+    /**
+     * 设置确定性模式及模拟帧率
+     */
+    public void setDeterministic(boolean deterministic, float tickRate) {
+        this.deterministic = deterministic;
+        this.tickRate = tickRate;
+        pendingEvents.clear();
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 当前模拟帧号（从录制/回放开始计）
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public long ticksToMillis(long ticks) {
+        return (long) (ticks * 1000.0 / tickRate);
+    }
+
+    public long millisToTicks(long millis) {
+        return (long) Math.ceil(millis * tickRate / 1000.0);
+    }
+
+    /**
+     * 已加载的录制是否为确定性录制
+     */
+    public boolean isDeterministicRecording() {
+        return deterministicRecording;
+    }
+
+    public long getRecordedSeed() {
+        return recordingSeed;
+    }
+
+    public float getRecordedTickRate() {
+        return tickRate;
+    }
+
+    public long getRecordedTickCount() {
+        return recordedTickCount;
+    }
+
+    /**
+     * 将回放时钟校准到指定回放时间（毫秒）
+     */
+    public void setReplayTime(long replayTime) {
+        long now = System.currentTimeMillis();
+        replayStartTime = now - totalPausedTime - (long)(replayTime / replaySpeed);
+        if (replayPaused) {
+            pauseStartTime = now;
+        }
+    }
+
+    /**
+     * 检查录制中是否需要新的关键帧
+     */
+    public boolean isKeyframeDue() {
+        if (currentMode != InputMode.RECORDING) return false;
+        if (keyframes.isEmpty()) return true;
+        long elapsed = deterministic ? ticksToMillis(tick) : System.currentTimeMillis() - startTime;
+        return elapsed - keyframes.get(keyframes.size() - 1).timestamp >= keyframeInterval;
+    }
+
+    /**
+     * 记录关键帧（场景快照 + 当前输入状态）
+     */
+    public void recordKeyframe(SceneSnapshot snapshot) {
+        if (currentMode != InputMode.RECORDING) return;
+        Keyframe keyframe = new Keyframe();
+        keyframe.timestamp = deterministic ? ticksToMillis(tick) : System.currentTimeMillis() - startTime;
+        keyframe.tick = tick;
+        keyframe.eventIndex = events.size();
+        keyframe.snapshot = snapshot;
+        keyframe.pressedKeys = pressedKeys.stream().mapToInt(Integer::intValue).toArray();
+        keyframe.mouseX = mousePosition.x;
+        keyframe.mouseY = mousePosition.y;
+        keyframe.mouseButtons = mouseButtons.clone();
+        keyframes.add(keyframe);
+    }
+
+    /**
+     * 查找不晚于目标时间的最近关键帧时间，没有则返回-1
+     */
+    public long findKeyframeTime(long targetTime) {
+        Keyframe keyframe = findKeyframe(targetTime);
+        return keyframe != null ? keyframe.timestamp : -1;
+    }
+
+    /**
+     * 回退到不晚于目标时间的最近关键帧：恢复输入状态和事件位置，返回需要恢复的场景快照
+     */
+    public SceneSnapshot rewindToKeyframe(long targetTime) {
+        Keyframe keyframe = findKeyframe(targetTime);
+        if (keyframe == null || currentMode != InputMode.REPLAYING) return null;
+
+        clearInputState();
+        for (int keyCode : keyframe.pressedKeys) {
+            pressedKeys.add(keyCode);
+            keyStates.put(keyCode, true);
+        }
+        mousePosition.x = keyframe.mouseX;
+        mousePosition.y = keyframe.mouseY;
+        System.arraycopy(keyframe.mouseButtons, 0, mouseButtons, 0, mouseButtons.length);
+        replayIndex = keyframe.eventIndex;
+        tick = keyframe.tick;
+        setReplayTime(keyframe.timestamp);
+        return keyframe.snapshot;
+    }
+
+    private Keyframe findKeyframe(long targetTime) {
+        Keyframe found = null;
+        for (Keyframe keyframe : keyframes) {
+            if (keyframe.timestamp > targetTime) break;
+            found = keyframe;
+        }
+        return found;
+    }
+
+    /**
+     * 设置关键帧间隔（毫秒）
+     */
+    public void setKeyframeInterval(long interval) {
+        this.keyframeInterval = Math.max(100, interval);
+    }
+
+    /**
+     * 获取关键帧数量
+     */
+    public int getKeyframeCount() {
+        return keyframes.size();
+    }
+
     /**
      * 暂停回放
      */
@@ -379,11 +692,29 @@ public class InputManager {
      * 保存录制到文件
      */
     public void saveRecording(String filepath) {
+        saveRecording(filepath, -1);
+    }
+
+    /**
+     * 保存录制到文件，文件头中记录结束时的分数
+     */
+    public void saveRecording(String filepath, int finalScore) {
+        RecordingHeader header = new RecordingHeader(System.currentTimeMillis(), getRecordingDuration(),
+            events.size(), finalScore, deterministicRecording);
+        Recording recording = new Recording();
+        recording.events = events;
+        recording.keyframes = keyframes;
+        recording.deterministic = deterministicRecording;
+        recording.tickRate = tickRate;
+        recording.seed = recordingSeed;
+        recording.tickCount = recordedTickCount;
+        recording.stateHashes = Arrays.copyOf(stateHashes, stateHashCount);
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filepath))) {
-            oos.writeObject(events);
-            System.out.println("录制已保存到: " + filepath);
+            oos.writeObject(header);
+            oos.writeObject(recording);
+            log.info("录制已保存到: " + filepath);
         } catch (IOException e) {
-            System.err.println("保存录制失败: " + e.getMessage());
+            log.error("保存录制失败: " + e.getMessage());
         }
     }
 
@@ -391,19 +722,74 @@ public class InputManager {
      * 从文件加载录制
      */
     @SuppressWarnings("unchecked")
-    public void loadRecording(String filepath) {
+    public boolean loadRecording(String filepath) {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filepath))) {
-            events = (List<InputEvent>) ois.readObject();
-            System.out.println("录制已加载: " + filepath + "，共 " + events.size() + " 个事件");
+            Object data = ois.readObject();
+            if (data instanceof RecordingHeader) {
+                data = ois.readObject();
+            }
+            if (data instanceof Recording) {
+                Recording recording = (Recording) data;
+                events = recording.events;
+                keyframes = recording.keyframes != null ? recording.keyframes : new ArrayList<>();
+                deterministicRecording = recording.deterministic;
+                recordingSeed = recording.seed;
+                recordedTickCount = recording.tickCount;
+                stateHashes = recording.stateHashes != null ? recording.stateHashes : new long[0];
+                if (recording.deterministic) {
+                    tickRate = recording.tickRate;
+                }
+            } else {
+                // 旧格式：仅包含事件列表
+                events = (List<InputEvent>) data;
+                keyframes = new ArrayList<>();
+                deterministicRecording = false;
+                recordedTickCount = 0;
+                stateHashes = new long[0];
+            }
+            stateHashCount = stateHashes.length;
+            log.info("录制已加载: " + filepath + "，共 " + events.size() + " 个事件，" + keyframes.size() + " 个关键帧");
+            return true;
         } catch (IOException | ClassNotFoundException e) {
-            System.err.println("加载录制失败: " + e.getMessage());
+            log.error("加载录制失败: " + e.getMessage());
+            return false;
         }
     }
 
+    /**
+     * 读取录制文件头，没有文件头的旧录制需要读取完整内容来生成
+     */
+    @SuppressWarnings("unchecked")
+    static RecordingHeader readHeader(File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Object data = ois.readObject();
+            if (data instanceof RecordingHeader) {
+                return (RecordingHeader) data;
+            }
+            if (data instanceof Recording) {
+                Recording recording = (Recording) data;
+                long duration = recording.deterministic
+                    ? (long) (recording.tickCount * 1000.0 / recording.tickRate)
+                    : lastTimestamp(recording.events);
+                return new RecordingHeader(file.lastModified(), duration, recording.events.size(), -1,
+                    recording.deterministic);
+            }
+            List<InputEvent> legacy = (List<InputEvent>) data;
+            return new RecordingHeader(file.lastModified(), lastTimestamp(legacy), legacy.size(), -1, false);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("无法识别的录制格式: " + file.getName(), e);
+        }
+    }
+
+    private static long lastTimestamp(List<InputEvent> events) {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).timestamp;
+    }
+
     /**
      * 获取回放进度 (0.0 - 1.0)
      */
     public float getReplayProgress() {
+        if (deterministicRecording && recordedTickCount > 0) return Math.min(1.0f, (float) tick / recordedTickCount);
         if (events.isEmpty()) return 0.0f;
         return (float) replayIndex / events.size();
     }
@@ -412,6 +798,7 @@ public class InputManager {
      * 获取录制总时长（毫秒）
      */
     public long getRecordingDuration() {
+        if (deterministicRecording) return ticksToMillis(recordedTickCount);
         if (events.isEmpty()) return 0;
         return events.get(events.size() - 1).timestamp;
     }
@@ -420,6 +807,7 @@ public class InputManager {
      * 获取当前回放时间（毫秒）
      */
     public long getCurrentReplayTime() {
+        if (currentMode == InputMode.REPLAYING && deterministic) return ticksToMillis(tick);
         if (currentMode != InputMode.REPLAYING || replayIndex >= events.size()) return 0;
         return (long)((System.currentTimeMillis() - replayStartTime - totalPausedTime) * replaySpeed);
     }
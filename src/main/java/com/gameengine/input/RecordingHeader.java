@@ -0,0 +1,53 @@
+package com.gameengine.input;
+
+import java.io.Serializable;
+
+/**
+ * 录制文件头，写在录制数据之前，浏览回放列表时无需读取完整录制
+ */
+public class RecordingHeader implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long createdAt;
+    private final long duration;
+    private final int eventCount;
+    private final int finalScore;
+    private final boolean deterministic;
+
+    public RecordingHeader(long createdAt, long duration, int eventCount, int finalScore, boolean deterministic) {
+        this.createdAt = createdAt;
+        this.duration = duration;
+        this.eventCount = eventCount;
+        this.finalScore = finalScore;
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * 录制时间（毫秒时间戳）
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * 录制时长（毫秒）
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * 结束录制时的分数，旧录制为 -1
+     */
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+}
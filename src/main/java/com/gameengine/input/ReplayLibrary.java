@@ -0,0 +1,196 @@
+package com.gameengine.input;
+
+import com.gameengine.util.Logger;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 回放库：在后台线程读取录制文件头，并缓存到索引文件，
+ * 文件大小和修改时间未变的录制下次直接使用索引中的信息
+ */
+public class ReplayLibrary {
+    private static final Logger log = Logger.getInstance();
+    public static final String INDEX_FILE = "replays.idx";
+    private static final int PUBLISH_BATCH = 16;
+
+    /**
+     * 排序方式
+     */
+    public enum SortKey {
+        DATE, DURATION, SCORE, NAME
+    }
+
+    /**
+     * 回放列表中的一项
+     */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String fileName;
+        private final long fileSize;
+        private final long lastModified;
+        private final RecordingHeader header;
+
+        Entry(String fileName, long fileSize, long lastModified, RecordingHeader header) {
+            this.fileName = fileName;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+            this.header = header;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public RecordingHeader getHeader() {
+            return header;
+        }
+
+        boolean matches(File file) {
+            return file.length() == fileSize && file.lastModified() == lastModified;
+        }
+    }
+
+    private final File directory;
+    private final File indexFile;
+    private final ExecutorService loader;
+    private volatile List<Entry> entries = Collections.emptyList();
+    private volatile boolean loading;
+    private volatile int version;
+
+    public ReplayLibrary(File directory) {
+        this.directory = directory;
+        this.indexFile = new File(directory, INDEX_FILE);
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReplayLibrary");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 在后台重新扫描目录，先发布索引中的条目，再逐步补充新的或已修改的录制
+     */
+    public void refreshAsync() {
+        loading = true;
+        loader.submit(this::refresh);
+    }
+
+    private void refresh() {
+        try {
+            Map<String, Entry> cached = loadIndex();
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".dat"));
+            if (files == null) files = new File[0];
+
+            List<Entry> result = new ArrayList<>(files.length);
+            List<File> stale = new ArrayList<>();
+            for (File file : files) {
+                Entry entry = cached.get(file.getName());
+                if (entry != null && entry.matches(file)) {
+                    result.add(entry);
+                } else {
+                    stale.add(file);
+                }
+            }
+            publish(result);
+
+            for (int i = 0; i < stale.size(); i++) {
+                File file = stale.get(i);
+                try {
+                    RecordingHeader header = InputManager.readHeader(file);
+                    result.add(new Entry(file.getName(), file.length(), file.lastModified(), header));
+                } catch (IOException e) {
+                    log.warn("跳过无法读取的录制 " + file.getName() + ": " + e.getMessage());
+                }
+                if ((i + 1) % PUBLISH_BATCH == 0) {
+                    publish(result);
+                }
+            }
+            publish(result);
+
+            if (!stale.isEmpty() || cached.size() != result.size()) {
+                saveIndex(result);
+            }
+        } catch (RuntimeException e) {
+            log.error("扫描回放目录失败: " + e.getMessage());
+        } finally {
+            loading = false;
+        }
+    }
+
+    private void publish(List<Entry> result) {
+        entries = Collections.unmodifiableList(new ArrayList<>(result));
+        version++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Entry> loadIndex() {
+        Map<String, Entry> cached = new HashMap<>();
+        if (!indexFile.exists()) return cached;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            for (Entry entry : (List<Entry>) ois.readObject()) {
+                cached.put(entry.fileName, entry);
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("回放索引无效，将重新生成: " + e.getMessage());
+        }
+        return cached;
+    }
+
+    private void saveIndex(List<Entry> result) {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            oos.writeObject(new ArrayList<>(result));
+        } catch (IOException e) {
+            log.error("保存回放索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 按条件筛选并排序，minDuration 为最短时长（毫秒）
+     */
+    public List<Entry> query(SortKey sortKey, long minDuration) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.header.getDuration() >= minDuration) {
+                result.add(entry);
+            }
+        }
+        result.sort(comparator(sortKey));
+        return result;
+    }
+
+    private static Comparator<Entry> comparator(SortKey sortKey) {
+        switch (sortKey) {
+            case DURATION:
+                return Comparator.comparingLong((Entry e) -> e.header.getDuration()).reversed();
+            case SCORE:
+                return Comparator.comparingInt((Entry e) -> e.header.getFinalScore()).reversed();
+            case NAME:
+                return Comparator.comparing(Entry::getFileName);
+            case DATE:
+            default:
+                return Comparator.comparingLong((Entry e) -> e.header.getCreatedAt()).reversed();
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * 条目列表每次更新时递增，用于判断是否需要重新排序
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+}
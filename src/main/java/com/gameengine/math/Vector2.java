@@ -1,9 +1,13 @@
 package com.gameengine.math;
 
+import java.io.Serializable;
+
 /**
  * 2D向量类，用于表示位置、速度等
  */
-public class Vector2 {
+public class Vector2 implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public float x;
     public float y;
     
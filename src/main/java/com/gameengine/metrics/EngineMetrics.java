@@ -0,0 +1,114 @@
+package com.gameengine.metrics;
+
+import java.util.Map;
+
+/**
+ * EngineMetricsMXBean 的实现，每次读取最新发布的快照
+ */
+public class EngineMetrics implements EngineMetricsMXBean {
+    private final MetricsCollector collector;
+
+    public EngineMetrics(MetricsCollector collector) {
+        this.collector = collector;
+    }
+
+    @Override
+    public long getFrame() {
+        return collector.getLatest().frame;
+    }
+
+    @Override
+    public float getFps() {
+        return collector.getLatest().fps;
+    }
+
+    @Override
+    public double getFrameTimeAvgMs() {
+        return collector.getLatest().frameAvgMs;
+    }
+
+    @Override
+    public double getFrameTimeP50Ms() {
+        return collector.getLatest().frameP50Ms;
+    }
+
+    @Override
+    public double getFrameTimeP95Ms() {
+        return collector.getLatest().frameP95Ms;
+    }
+
+    @Override
+    public double getFrameTimeP99Ms() {
+        return collector.getLatest().frameP99Ms;
+    }
+
+    @Override
+    public double getFrameTimeMaxMs() {
+        return collector.getLatest().frameMaxMs;
+    }
+
+    @Override
+    public int getEntityCount() {
+        return collector.getLatest().entityCount;
+    }
+
+    @Override
+    public Map<String, Integer> getEntitiesByType() {
+        return collector.getLatest().entitiesByType;
+    }
+
+    @Override
+    public int getDrawCalls() {
+        return collector.getLatest().drawCalls;
+    }
+
+    @Override
+    public int getInputQueueDepth() {
+        return collector.getLatest().inputQueueDepth;
+    }
+
+    @Override
+    public int getHitchCount() {
+        return collector.getLatest().hitchCount;
+    }
+
+    @Override
+    public long getAllocatedBytesPerFrame() {
+        return collector.getLatest().allocatedBytesPerFrame;
+    }
+
+    @Override
+    public long getGcCount() {
+        return collector.getLatest().gcCount;
+    }
+
+    @Override
+    public Map<String, Long> getPoolHits() {
+        return collector.getLatest().poolHits;
+    }
+
+    @Override
+    public Map<String, Long> getPoolMisses() {
+        return collector.getLatest().poolMisses;
+    }
+
+    @Override
+    public double getFramePacingErrorP50Ms() {
+        return collector.getLatest().pacingErrorP50Ms;
+    }
+
+    @Override
+    public double getFramePacingErrorP99Ms() {
+        return collector.getLatest().pacingErrorP99Ms;
+    }
+
+    @Override
+    public long getFramePacingMissedFrames() {
+        return collector.getLatest().pacingMissedFrames;
+    }
+
+    @Override
+    public int getQualityLevel() {
+        return collector.getLatest().qualityLevel;
+    }
+}
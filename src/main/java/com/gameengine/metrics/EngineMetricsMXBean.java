@@ -0,0 +1,48 @@
+package com.gameengine.metrics;
+
+import java.util.Map;
+
+/**
+ * 通过 JMX 暴露的引擎统计数据
+ */
+public interface EngineMetricsMXBean {
+    long getFrame();
+
+    float getFps();
+
+    double getFrameTimeAvgMs();
+
+    double getFrameTimeP50Ms();
+
+    double getFrameTimeP95Ms();
+
+    double getFrameTimeP99Ms();
+
+    double getFrameTimeMaxMs();
+
+    int getEntityCount();
+
+    Map<String, Integer> getEntitiesByType();
+
+    int getDrawCalls();
+
+    int getInputQueueDepth();
+
+    int getHitchCount();
+
+    long getAllocatedBytesPerFrame();
+
+    long getGcCount();
+
+    Map<String, Long> getPoolHits();
+
+    Map<String, Long> getPoolMisses();
+
+    double getFramePacingErrorP50Ms();
+
+    double getFramePacingErrorP99Ms();
+
+    long getFramePacingMissedFrames();
+
+    int getQualityLevel();
+}
@@ -0,0 +1,92 @@
+package com.gameengine.metrics;
+
+import com.gameengine.core.FramePacer;
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.GameObjectPool;
+import com.gameengine.scene.Scene;
+import com.gameengine.util.Profiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 在游戏线程定期生成统计快照，通过 volatile 字段发布，读取方不需要加锁
+ */
+public class MetricsCollector {
+    private final GameEngine engine;
+    private long intervalNanos = 250_000_000L; // 每秒更新4次
+    private long lastUpdate;
+    private volatile MetricsSnapshot latest;
+
+    public MetricsCollector(GameEngine engine) {
+        this.engine = engine;
+        this.latest = new MetricsSnapshot(System.currentTimeMillis(), 0, 0, 0, 0, 0, 0, 0,
+            new TreeMap<>(), 0, 0, 0, 0, 0, new TreeMap<>(), new TreeMap<>(), 0, 0, 0, 0);
+    }
+
+    /**
+     * 每帧结束时在游戏线程调用，到达间隔时生成新快照
+     */
+    public void frameFinished() {
+        long now = System.nanoTime();
+        if (now - lastUpdate < intervalNanos) return;
+        lastUpdate = now;
+        latest = capture();
+    }
+
+    private MetricsSnapshot capture() {
+        Profiler profiler = engine.getProfiler();
+        Profiler.ProfileData frame = profiler.getStats("Frame");
+        FramePacer pacer = engine.getFramePacer();
+
+        Map<String, Integer> entities = new TreeMap<>();
+        Map<String, Long> poolHits = new TreeMap<>();
+        Map<String, Long> poolMisses = new TreeMap<>();
+        Scene scene = engine.getCurrentScene();
+        if (scene != null) {
+            List<GameObject> objects = scene.getGameObjects();
+            for (GameObject obj : objects) {
+                entities.merge(obj.getName(), 1, Integer::sum);
+            }
+            for (GameObjectPool pool : scene.getPools()) {
+                poolHits.put(pool.getName(), pool.getHits());
+                poolMisses.put(pool.getName(), pool.getMisses());
+            }
+        }
+
+        return new MetricsSnapshot(
+            System.currentTimeMillis(),
+            profiler.getFrameNumber(),
+            engine.getCurrentFPS(),
+            frame != null ? frame.getAvgMs() : 0,
+            frame != null ? frame.getP50Ms() : 0,
+            frame != null ? frame.getP95Ms() : 0,
+            frame != null ? frame.getP99Ms() : 0,
+            frame != null ? frame.getMaxMs() : 0,
+            entities,
+            engine.getRenderer().getDrawCallCount(),
+            engine.getInputManager().getInputQueueDepth(),
+            engine.getWatchdog().getHitchCount(),
+            profiler.getAvgFrameAllocatedBytes(),
+            profiler.getTotalGcCount(),
+            poolHits,
+            poolMisses,
+            pacer.getErrorPercentileMs(0.50),
+            pacer.getErrorPercentileMs(0.99),
+            pacer.getMissedFrames(),
+            engine.getQualityController().getLevel());
+    }
+
+    /**
+     * 最新的快照
+     */
+    public MetricsSnapshot getLatest() {
+        return latest;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gameengine.metrics;
+
+import com.gameengine.util.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 本地统计端点：HTTP /metrics 返回 Prometheus 文本格式，同时注册 JMX MBean
+ */
+public class MetricsServer {
+    private static final Logger log = Logger.getInstance();
+    private final MetricsCollector collector;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private ObjectName objectName;
+
+    public MetricsServer(MetricsCollector collector) {
+        this.collector = collector;
+    }
+
+    /**
+     * 在 127.0.0.1 的指定端口启动 HTTP 服务并注册 MBean
+     */
+    public boolean start(int port, String name) {
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MetricsServer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            httpServer.setExecutor(executor);
+            httpServer.createContext("/metrics", this::handleMetrics);
+            httpServer.start();
+            log.info("统计端点已启动: http://127.0.0.1:" + httpServer.getAddress().getPort() + "/metrics");
+        } catch (IOException e) {
+            log.error("启动统计端点失败: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("com.gameengine:type=EngineMetrics,name=" + ObjectName.quote(name));
+            mbeanServer.registerMBean(new EngineMetrics(collector), objectName);
+        } catch (Exception e) {
+            log.error("注册 JMX MBean 失败: " + e.getMessage());
+            objectName = null;
+        }
+        return true;
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] body = collector.getLatest().toPrometheus().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 实际监听的端口，传入0时由系统分配
+     */
+    public int getPort() {
+        return httpServer != null ? httpServer.getAddress().getPort() : -1;
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executor.shutdownNow();
+            httpServer = null;
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception e) {
+                log.error("注销 JMX MBean 失败: " + e.getMessage());
+            }
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.gameengine.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 某一时刻的引擎统计数据，创建后不再修改，可在任意线程读取
+ */
+public final class MetricsSnapshot {
+    public final long timestamp;
+    public final long frame;
+    public final float fps;
+    public final double frameAvgMs;
+    public final double frameP50Ms;
+    public final double frameP95Ms;
+    public final double frameP99Ms;
+    public final double frameMaxMs;
+    public final int entityCount;
+    public final Map<String, Integer> entitiesByType;
+    public final int drawCalls;
+    public final int inputQueueDepth;
+    public final int hitchCount;
+    public final long allocatedBytesPerFrame;
+    public final long gcCount;
+    public final Map<String, Long> poolHits;
+    public final Map<String, Long> poolMisses;
+    public final double pacingErrorP50Ms;
+    public final double pacingErrorP99Ms;
+    public final long pacingMissedFrames;
+    public final int qualityLevel;
+
+    public MetricsSnapshot(long timestamp, long frame, float fps, double frameAvgMs, double frameP50Ms,
+                           double frameP95Ms, double frameP99Ms, double frameMaxMs,
+                           Map<String, Integer> entitiesByType, int drawCalls, int inputQueueDepth,
+                           int hitchCount, long allocatedBytesPerFrame, long gcCount,
+                           Map<String, Long> poolHits, Map<String, Long> poolMisses,
+                           double pacingErrorP50Ms, double pacingErrorP99Ms, long pacingMissedFrames,
+                           int qualityLevel) {
+        this.timestamp = timestamp;
+        this.frame = frame;
+        this.fps = fps;
+        this.frameAvgMs = frameAvgMs;
+        this.frameP50Ms = frameP50Ms;
+        this.frameP95Ms = frameP95Ms;
+        this.frameP99Ms = frameP99Ms;
+        this.frameMaxMs = frameMaxMs;
+        this.entitiesByType = Collections.unmodifiableMap(entitiesByType);
+        int total = 0;
+        for (int count : entitiesByType.values()) {
+            total += count;
+        }
+        this.entityCount = total;
+        this.drawCalls = drawCalls;
+        this.inputQueueDepth = inputQueueDepth;
+        this.hitchCount = hitchCount;
+        this.allocatedBytesPerFrame = allocatedBytesPerFrame;
+        this.gcCount = gcCount;
+        this.poolHits = Collections.unmodifiableMap(poolHits);
+        this.poolMisses = Collections.unmodifiableMap(poolMisses);
+        this.pacingErrorP50Ms = pacingErrorP50Ms;
+        this.pacingErrorP99Ms = pacingErrorP99Ms;
+        this.pacingMissedFrames = pacingMissedFrames;
+        this.qualityLevel = qualityLevel;
+    }
+
+    /**
+     * 转换为 Prometheus 文本格式
+     */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        metric(sb, "gameengine_fps", "gauge", "Frames per second", fps);
+        metric(sb, "gameengine_frames_total", "counter", "Frames simulated since start", frame);
+
+        header(sb, "gameengine_frame_time_ms", "gauge", "Frame time over the last 60 frames");
+        sample(sb, "gameengine_frame_time_ms{stat=\"avg\"}", frameAvgMs);
+        sample(sb, "gameengine_frame_time_ms{stat=\"p50\"}", frameP50Ms);
+        sample(sb, "gameengine_frame_time_ms{stat=\"p95\"}", frameP95Ms);
+        sample(sb, "gameengine_frame_time_ms{stat=\"p99\"}", frameP99Ms);
+        sample(sb, "gameengine_frame_time_ms{stat=\"max\"}", frameMaxMs);
+
+        metric(sb, "gameengine_entities_total", "gauge", "Game objects in the current scene", entityCount);
+        header(sb, "gameengine_entities", "gauge", "Game objects in the current scene by name");
+        for (Map.Entry<String, Integer> entry : entitiesByType.entrySet()) {
+            sample(sb, "gameengine_entities{type=\"" + escape(entry.getKey()) + "\"}", entry.getValue());
+        }
+
+        metric(sb, "gameengine_draw_calls", "gauge", "Draw calls in the last frame", drawCalls);
+        metric(sb, "gameengine_input_queue_depth", "gauge", "Live input events queued at the last tick", inputQueueDepth);
+        metric(sb, "gameengine_hitches_total", "counter", "Frames over the frame budget", hitchCount);
+        metric(sb, "gameengine_allocated_bytes_per_frame", "gauge", "Average bytes allocated per frame", allocatedBytesPerFrame);
+        metric(sb, "gameengine_gc_collections_total", "counter", "Garbage collections since start", gcCount);
+
+        header(sb, "gameengine_pool_hits_total", "counter", "Objects reused from a pool");
+        for (Map.Entry<String, Long> entry : poolHits.entrySet()) {
+            sample(sb, "gameengine_pool_hits_total{pool=\"" + escape(entry.getKey()) + "\"}", entry.getValue());
+        }
+        header(sb, "gameengine_pool_misses_total", "counter", "Objects created because a pool was empty");
+        for (Map.Entry<String, Long> entry : poolMisses.entrySet()) {
+            sample(sb, "gameengine_pool_misses_total{pool=\"" + escape(entry.getKey()) + "\"}", entry.getValue());
+        }
+
+        header(sb, "gameengine_frame_pacing_error_ms", "gauge", "Wake-up time relative to the frame deadline");
+        sample(sb, "gameengine_frame_pacing_error_ms{stat=\"p50\"}", pacingErrorP50Ms);
+        sample(sb, "gameengine_frame_pacing_error_ms{stat=\"p99\"}", pacingErrorP99Ms);
+        metric(sb, "gameengine_frame_pacing_missed_total", "counter", "Frames that overran a whole frame period", pacingMissedFrames);
+        metric(sb, "gameengine_quality_level", "gauge", "Adaptive quality level, 0 is full quality", qualityLevel);
+        return sb.toString();
+    }
+
+    private static void metric(StringBuilder sb, String name, String type, String help, double value) {
+        header(sb, name, type, help);
+        sample(sb, name, value);
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, double value) {
+        sb.append(name).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            sb.append((long) value);
+        } else {
+            sb.append(String.format(Locale.ROOT, "%.4f", value));
+        }
+        sb.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
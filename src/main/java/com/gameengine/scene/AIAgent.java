@@ -0,0 +1,8 @@
+package com.gameengine.scene;
+
+/**
+ * 由 AIScheduler 调度的对象：think() 重新决策并缓存结果，update() 每帧只执行缓存的决策
+ */
+public interface AIAgent {
+    void think();
+}
@@ -0,0 +1,290 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.IRenderer;
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI 调度器：每帧开始时在主线程按轮转顺序调用到期对象的 think()，
+ * 远离焦点或在屏幕外的对象降低决策频率，单帧 AI 耗时超过时间片后剩余对象顺延到下一帧。
+ * 焦点对象（玩家）每帧通过场景的名称索引查找。
+ * 锁定（确定性模式）时不调度，由对象在 update() 中每帧自行决策，保证与录制一致
+ */
+public class AIScheduler {
+    private static final int TIME_CHECK_INTERVAL = 8; // 每处理几个对象检查一次时间
+
+    private static final class Entry {
+        final GameObject object;
+        final AIAgent agent;
+        long lastThinkFrame = Long.MIN_VALUE / 2;
+        boolean removed;
+
+        Entry(GameObject object, AIAgent agent) {
+            this.object = object;
+            this.agent = agent;
+        }
+    }
+
+    private final Scene scene;
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<GameObject, Entry> byObject = new IdentityHashMap<>();
+    private boolean hasRemoved;
+    private int cursor;
+    private long frame;
+    private boolean locked;
+
+    private String focusName;
+    private GameObject focus;
+    private FlowField flowField;
+    private boolean flowFieldAsync;
+
+    private long sliceNanos = 2_000_000L;
+    private float nearDistance = 300f;
+    private int farInterval = 2;
+    private int offscreenInterval = 4;
+    private float offscreenMargin = 50f;
+
+    private int thinksLastFrame;
+    private int deferredLastFrame;
+    private long lastSliceNanos;
+
+    public AIScheduler(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * 注册对象，通常在对象的 initialize() 中调用
+     */
+    public <T extends GameObject & AIAgent> void register(T agent) {
+        if (byObject.containsKey(agent)) return;
+        Entry entry = new Entry(agent, agent);
+        entries.add(entry);
+        byObject.put(agent, entry);
+    }
+
+    /**
+     * 对象被移出场景时由场景调用
+     */
+    void onRemoved(GameObject obj) {
+        Entry entry = byObject.remove(obj);
+        if (entry != null) {
+            entry.removed = true;
+            hasRemoved = true;
+        }
+    }
+
+    /**
+     * 保存对象距上次决策的帧数，恢复后按原来的节奏继续调度
+     */
+    void captureAgent(GameObject obj, SceneSnapshot.EntityState state) {
+        Entry entry = byObject.get(obj);
+        if (entry != null) {
+            state.putInt("ai.sinceThink", (int) Math.min(frame - entry.lastThinkFrame, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * 在对象重新注册后调用
+     */
+    void restoreAgent(GameObject obj, SceneSnapshot.EntityState state) {
+        Entry entry = byObject.get(obj);
+        if (entry != null && state.hasValue("ai.sinceThink")) {
+            entry.lastThinkFrame = frame - state.getInt("ai.sinceThink", 0);
+        }
+    }
+
+    /**
+     * 场景被清空或从快照恢复时调用
+     */
+    void clear() {
+        entries.clear();
+        byObject.clear();
+        hasRemoved = false;
+        cursor = 0;
+    }
+
+    /**
+     * 每帧在对象更新之前调用（此时场景列表已处理完本帧的添加和移除）
+     */
+    void beginFrame() {
+        frame++;
+        focus = focusName != null ? scene.findGameObjectByName(focusName) : null;
+        Vector2 focusPosition = null;
+        if (focus != null) {
+            TransformComponent transform = focus.getComponent(TransformComponent.class);
+            if (transform != null) {
+                focusPosition = transform.getPosition();
+            }
+        }
+        if (flowField != null) {
+            flowField.setAsync(flowFieldAsync && !locked);
+            if (focusPosition != null) {
+                flowField.update(focusPosition);
+            }
+        }
+        if (hasRemoved) {
+            entries.removeIf(entry -> entry.removed);
+            hasRemoved = false;
+            cursor = 0;
+        }
+        thinksLastFrame = 0;
+        deferredLastFrame = 0;
+        if (locked || entries.isEmpty()) {
+            lastSliceNanos = 0;
+            return;
+        }
+
+        IRenderer renderer = scene.getRenderer();
+        float viewWidth = renderer != null ? renderer.getWidth() : 0;
+        float viewHeight = renderer != null ? renderer.getHeight() : 0;
+        int qualityInterval = scene.getAiUpdateInterval();
+        float nearSquared = nearDistance * nearDistance;
+
+        long start = System.nanoTime();
+        long deadline = start + sliceNanos;
+        int size = entries.size();
+        if (cursor >= size) cursor = 0;
+        int visited = 0;
+        for (; visited < size; visited++) {
+            Entry entry = entries.get(cursor);
+            cursor = cursor + 1 == size ? 0 : cursor + 1;
+            if (!entry.object.isActive()) continue;
+
+            int interval = 1;
+            TransformComponent transform = entry.object.getComponent(TransformComponent.class);
+            if (transform != null) {
+                Vector2 position = transform.getPosition();
+                if (viewWidth > 0 && (position.x < -offscreenMargin || position.y < -offscreenMargin
+                        || position.x > viewWidth + offscreenMargin || position.y > viewHeight + offscreenMargin)) {
+                    interval = offscreenInterval;
+                } else if (focusPosition != null) {
+                    float dx = position.x - focusPosition.x;
+                    float dy = position.y - focusPosition.y;
+                    if (dx * dx + dy * dy > nearSquared) {
+                        interval = farInterval;
+                    }
+                }
+            }
+            if (frame - entry.lastThinkFrame < (long) interval * qualityInterval) continue;
+
+            entry.agent.think();
+            entry.lastThinkFrame = frame;
+            thinksLastFrame++;
+            if (thinksLastFrame % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                visited++;
+                break;
+            }
+        }
+        // 时间片用完时，剩余对象中已到期的数量
+        for (int i = visited, index = cursor; i < size; i++) {
+            Entry entry = entries.get(index);
+            index = index + 1 == size ? 0 : index + 1;
+            if (frame - entry.lastThinkFrame >= qualityInterval) deferredLastFrame++;
+        }
+        lastSliceNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * 焦点对象（例如玩家），不在场景中时为 null
+     */
+    public GameObject getFocus() {
+        return focus;
+    }
+
+    /**
+     * 设置焦点对象的名称，距离焦点越远决策越少
+     */
+    public void setFocusName(String focusName) {
+        this.focusName = focusName;
+    }
+
+    /**
+     * 从 from 走向 to 的单位方向，设置了流场时绕过障碍物，否则直线
+     */
+    public Vector2 steer(Vector2 from, Vector2 to) {
+        FlowField field = flowField;
+        return field != null ? field.sample(from, to) : to.subtract(from).normalize();
+    }
+
+    /**
+     * 设置朝焦点移动的流场，每帧按焦点位置更新一次
+     */
+    public void setFlowField(FlowField flowField) {
+        if (this.flowField != null && this.flowField != flowField) {
+            this.flowField.shutdown();
+        }
+        this.flowField = flowField;
+    }
+
+    /**
+     * 停止流场的后台计算线程
+     */
+    void shutdown() {
+        if (flowField != null) {
+            flowField.shutdown();
+        }
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    /**
+     * 在后台线程计算流场（锁定时仍同步计算）
+     */
+    public void setFlowFieldAsync(boolean flowFieldAsync) {
+        this.flowFieldAsync = flowFieldAsync;
+    }
+
+    /**
+     * 锁定后不调度，对象每帧在 update() 中自行决策
+     */
+    public void setLocked(boolean locked) {
+        this.locked = locked;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * 单帧 AI 决策的时间片
+     */
+    public void setSliceNanos(long sliceNanos) {
+        this.sliceNanos = Math.max(0, sliceNanos);
+    }
+
+    /**
+     * 距离焦点超过 nearDistance 时每 farInterval 帧决策一次，屏幕外每 offscreenInterval 帧一次
+     */
+    public void setLod(float nearDistance, int farInterval, int offscreenInterval) {
+        this.nearDistance = nearDistance;
+        this.farInterval = Math.max(1, farInterval);
+        this.offscreenInterval = Math.max(1, offscreenInterval);
+    }
+
+    public int getAgentCount() {
+        return entries.size();
+    }
+
+    public int getThinksLastFrame() {
+        return thinksLastFrame;
+    }
+
+    /**
+     * 上一帧因时间片用完而顺延的对象数
+     */
+    public int getDeferredLastFrame() {
+        return deferredLastFrame;
+    }
+
+    public long getLastSliceNanos() {
+        return lastSliceNanos;
+    }
+}
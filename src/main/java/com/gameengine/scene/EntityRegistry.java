@@ -0,0 +1,103 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按名称和标签索引场景中的对象，随场景列表的添加和移除维护，
+ * 每个名称下的对象顺序与场景列表中的顺序相同
+ */
+class EntityRegistry {
+    private static final class Bucket {
+        final List<GameObject> objects = new ArrayList<>();
+        final List<GameObject> view = Collections.unmodifiableList(objects);
+    }
+
+    private final Map<String, Bucket> byName = new HashMap<>();
+    private final Map<String, Bucket> byTag = new HashMap<>();
+
+    void add(GameObject obj) {
+        bucket(byName, obj.getName()).objects.add(obj);
+        for (String tag : obj.getTags()) {
+            bucket(byTag, tag).objects.add(obj);
+        }
+    }
+
+    /**
+     * 移除一批已经从场景列表中移除的对象，每个受影响的名称只遍历一次
+     */
+    void removeAll(List<GameObject> removed) {
+        if (removed.isEmpty()) return;
+        if (removed.size() == 1) {
+            GameObject obj = removed.get(0);
+            removeFrom(byName.get(obj.getName()), obj);
+            for (String tag : obj.getTags()) {
+                removeFrom(byTag.get(tag), obj);
+            }
+            return;
+        }
+        Set<GameObject> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(removed);
+        Map<Bucket, Boolean> touched = new IdentityHashMap<>();
+        for (GameObject obj : removed) {
+            touched.put(byName.get(obj.getName()), Boolean.TRUE);
+            for (String tag : obj.getTags()) {
+                touched.put(byTag.get(tag), Boolean.TRUE);
+            }
+        }
+        for (Bucket bucket : touched.keySet()) {
+            if (bucket != null) {
+                bucket.objects.removeIf(set::contains);
+            }
+        }
+    }
+
+    private static void removeFrom(Bucket bucket, GameObject obj) {
+        if (bucket == null) return;
+        List<GameObject> objects = bucket.objects;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) == obj) {
+                objects.remove(i);
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        for (Bucket bucket : byName.values()) {
+            bucket.objects.clear();
+        }
+        for (Bucket bucket : byTag.values()) {
+            bucket.objects.clear();
+        }
+    }
+
+    GameObject first(String name) {
+        Bucket bucket = byName.get(name);
+        return bucket == null || bucket.objects.isEmpty() ? null : bucket.objects.get(0);
+    }
+
+    List<GameObject> withName(String name) {
+        return bucket(byName, name).view;
+    }
+
+    List<GameObject> withTag(String tag) {
+        return bucket(byTag, tag).view;
+    }
+
+    private static Bucket bucket(Map<String, Bucket> map, String key) {
+        Bucket bucket = map.get(key);
+        if (bucket == null) {
+            bucket = new Bucket();
+            map.put(key, bucket);
+        }
+        return bucket;
+    }
+}
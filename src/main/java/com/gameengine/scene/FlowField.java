@@ -0,0 +1,361 @@
+package com.gameengine.scene;
+
+import com.gameengine.math.Vector2;
+import com.gameengine.util.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 网格流场：从目标所在格子做一次 Dijkstra（直线代价 10，斜线 14），
+ * 每个格子记录走向目标的下一步方向，所有追踪者按所在格子 O(1) 取方向。
+ * 与目标之间没有障碍物遮挡的格子直接朝目标直线移动（没有障碍物时与直线追踪完全相同）。
+ * 目标格子和障碍物都没有变化时不重新计算；可以在后台线程计算，确定性模式下必须同步计算
+ */
+public class FlowField {
+    private static final Logger log = Logger.getInstance();
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int[] NEIGHBOR_DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOR_DY = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final float INV_SQRT2 = (float) (1.0 / Math.sqrt(2.0));
+
+    /**
+     * 一次计算的结果，发布后不再修改
+     */
+    private static final class Field {
+        final int targetCell;
+        final int[] cost;
+        final byte[] next; // 下一步方向在 NEIGHBOR_DX/DY 中的序号，-1 表示没有
+        final boolean[] lineOfSight;
+
+        Field(int targetCell, int cells) {
+            this.targetCell = targetCell;
+            this.cost = new int[cells];
+            this.next = new byte[cells];
+            this.lineOfSight = new boolean[cells];
+        }
+    }
+
+    /**
+     * Dijkstra 使用的二叉堆，元素编码为 cost << 32 | cell
+     */
+    private static final class CellHeap {
+        long[] values = new long[64];
+        int size;
+
+        void push(int cell, int cellCost) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            long value = ((long) cellCost << 32) | cell;
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (values[parent] <= value) break;
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = value;
+        }
+
+        long pop() {
+            long top = values[0];
+            long last = values[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && values[child + 1] < values[child]) child++;
+                if (last <= values[child]) break;
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = last;
+            return top;
+        }
+    }
+
+    private final int columns;
+    private final int rows;
+    private final float cellSize;
+    private final boolean[] blocked;
+    private int blockedCount;
+    private int obstacleVersion;
+
+    private volatile Field field;
+    private int computedVersion = -1;
+    private boolean async;
+    private ExecutorService executor;
+    private final AtomicBoolean computing = new AtomicBoolean();
+    private volatile int generation; // 切换同步/异步后丢弃尚未完成的旧计算
+
+    private volatile long lastComputeNanos;
+    private volatile int computeCount;
+
+    public FlowField(float width, float height, float cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.blocked = new boolean[columns * rows];
+    }
+
+    /**
+     * 设置格子是否为障碍物
+     */
+    public void setBlocked(int column, int row, boolean value) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) return;
+        int cell = row * columns + column;
+        if (blocked[cell] == value) return;
+        blocked[cell] = value;
+        blockedCount += value ? 1 : -1;
+        obstacleVersion++;
+    }
+
+    /**
+     * 把覆盖矩形区域的格子设为障碍物或清除
+     */
+    public void setBlockedRect(float x, float y, float width, float height, boolean value) {
+        int c0 = (int) Math.floor(x / cellSize);
+        int r0 = (int) Math.floor(y / cellSize);
+        int c1 = (int) Math.ceil((x + width) / cellSize) - 1;
+        int r1 = (int) Math.ceil((y + height) / cellSize) - 1;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                setBlocked(c, r, value);
+            }
+        }
+    }
+
+    public boolean isBlocked(float x, float y) {
+        int cell = cellAt(x, y);
+        return cell >= 0 && blocked[cell];
+    }
+
+    /**
+     * 目标移动后调用（每帧一次）。目标格子和障碍物都没有变化时直接返回；
+     * 异步模式下上一次计算尚未完成时跳过，继续使用旧的流场
+     */
+    public void update(Vector2 target) {
+        int targetCell = cellAt(target.x, target.y);
+        Field current = field;
+        if (computedVersion == obstacleVersion && (current == null ? blockedCount == 0 : current.targetCell == targetCell)) return;
+        if (targetCell < 0 || blockedCount == 0) {
+            // 没有障碍物时所有格子都能直线看到目标，不需要流场
+            field = null;
+            computedVersion = obstacleVersion;
+            return;
+        }
+
+        if (!async) {
+            computedVersion = obstacleVersion;
+            field = compute(targetCell, blocked);
+            return;
+        }
+        if (!computing.compareAndSet(false, true)) return;
+        computedVersion = obstacleVersion;
+        boolean[] obstacles = blocked.clone();
+        int taskGeneration = generation;
+        executor.execute(() -> {
+            try {
+                Field result = compute(targetCell, obstacles);
+                if (taskGeneration == generation) {
+                    field = result;
+                }
+            } catch (RuntimeException e) {
+                log.error("流场计算失败: " + e);
+            } finally {
+                computing.set(false);
+            }
+        });
+    }
+
+    /**
+     * 从 position 走向 target 的单位方向：有直线视野（或不在网格内、无法到达）时直接朝目标，
+     * 否则沿流场绕过障碍物
+     */
+    public Vector2 sample(Vector2 position, Vector2 target) {
+        Field current = field;
+        int cell = cellAt(position.x, position.y);
+        if (current == null || cell < 0 || current.lineOfSight[cell] || current.next[cell] < 0) {
+            return target.subtract(position).normalize();
+        }
+        int dir = current.next[cell];
+        float scale = dir < 4 ? 1f : INV_SQRT2;
+        return new Vector2(NEIGHBOR_DX[dir] * scale, NEIGHBOR_DY[dir] * scale);
+    }
+
+    private Field compute(int targetCell, boolean[] obstacles) {
+        long start = System.nanoTime();
+        int cells = columns * rows;
+        Field result = new Field(targetCell, cells);
+        int[] cost = result.cost;
+        Arrays.fill(cost, UNREACHABLE);
+        Arrays.fill(result.next, (byte) -1);
+
+        cost[targetCell] = 0;
+        CellHeap heap = new CellHeap();
+        heap.push(targetCell, 0);
+        while (heap.size > 0) {
+            long top = heap.pop();
+            int cell = (int) top;
+            int cellCost = (int) (top >>> 32);
+            if (cellCost > cost[cell]) continue;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            for (int d = 0; d < 8; d++) {
+                int nx = cx + NEIGHBOR_DX[d];
+                int ny = cy + NEIGHBOR_DY[d];
+                if (!passable(obstacles, cx, cy, nx, ny, d)) continue;
+                int neighbor = ny * columns + nx;
+                int newCost = cellCost + (d < 4 ? STRAIGHT_COST : DIAGONAL_COST);
+                if (newCost < cost[neighbor]) {
+                    cost[neighbor] = newCost;
+                    heap.push(neighbor, newCost);
+                }
+            }
+        }
+
+        // 每个格子指向代价最小的相邻格子
+        for (int cell = 0; cell < cells; cell++) {
+            if (cost[cell] == UNREACHABLE || cell == targetCell) continue;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            int best = cost[cell];
+            for (int d = 0; d < 8; d++) {
+                int nx = cx + NEIGHBOR_DX[d];
+                int ny = cy + NEIGHBOR_DY[d];
+                if (!passable(obstacles, cx, cy, nx, ny, d)) continue;
+                int neighborCost = cost[ny * columns + nx];
+                if (neighborCost < best) {
+                    best = neighborCost;
+                    result.next[cell] = (byte) d;
+                }
+            }
+        }
+
+        // 视线检查使用向外扩大一格的障碍物，避免从格子中心看得到、实际位置却擦过障碍物拐角
+        boolean[] inflated = inflate(obstacles);
+        int tx = targetCell % columns;
+        int ty = targetCell / columns;
+        for (int cell = 0; cell < cells; cell++) {
+            if (!obstacles[cell]) {
+                result.lineOfSight[cell] = lineOfSight(inflated, cell % columns, cell / columns, tx, ty);
+            }
+        }
+
+        lastComputeNanos = System.nanoTime() - start;
+        computeCount++;
+        return result;
+    }
+
+    /**
+     * 可以从 (cx, cy) 走到相邻格子 (nx, ny)：目标不是障碍物，斜向移动时不穿过障碍物的拐角
+     */
+    private boolean passable(boolean[] obstacles, int cx, int cy, int nx, int ny, int d) {
+        if (nx < 0 || ny < 0 || nx >= columns || ny >= rows) return false;
+        if (obstacles[ny * columns + nx]) return false;
+        if (d >= 4 && (obstacles[cy * columns + nx] || obstacles[ny * columns + cx])) return false;
+        return true;
+    }
+
+    private boolean[] inflate(boolean[] obstacles) {
+        boolean[] inflated = new boolean[obstacles.length];
+        for (int cell = 0; cell < obstacles.length; cell++) {
+            if (!obstacles[cell]) continue;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            for (int y = Math.max(0, cy - 1); y <= Math.min(rows - 1, cy + 1); y++) {
+                for (int x = Math.max(0, cx - 1); x <= Math.min(columns - 1, cx + 1); x++) {
+                    inflated[y * columns + x] = true;
+                }
+            }
+        }
+        return inflated;
+    }
+
+    /**
+     * 两个格子中心的连线经过的格子（Bresenham）都不是障碍物
+     */
+    private boolean lineOfSight(boolean[] obstacles, int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (true) {
+            if (obstacles[y0 * columns + x0]) return false;
+            if (x0 == x1 && y0 == y1) return true;
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x0 += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+    }
+
+    private int cellAt(float x, float y) {
+        if (x < 0 || y < 0) return -1;
+        int column = (int) (x / cellSize);
+        int row = (int) (y / cellSize);
+        if (column >= columns || row >= rows) return -1;
+        return row * columns + column;
+    }
+
+    /**
+     * 在后台线程计算流场；确定性模式下必须关闭
+     */
+    public void setAsync(boolean async) {
+        if (async == this.async) return;
+        generation++;
+        computedVersion = -1;
+        if (async && executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "FlowField");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.async = async;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * 上一次计算的耗时（纳秒）
+     */
+    public long getLastComputeNanos() {
+        return lastComputeNanos;
+    }
+
+    public int getComputeCount() {
+        return computeCount;
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
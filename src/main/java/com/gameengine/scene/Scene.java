@@ -1,14 +1,27 @@
 package com.gameengine.scene;
 
 import com.gameengine.core.GameObject;
+import com.gameengine.core.GameObjectPool;
+import com.gameengine.core.Prefab;
+import com.gameengine.core.QualityController;
 import com.gameengine.core.Component;
+import com.gameengine.core.EventBus;
+import com.gameengine.core.GameEvents;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.math.Vector2;
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.util.Profiler;
+import com.gameengine.util.Logger;
 // 移除具体游戏逻辑的import
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
 
 import static java.lang.Math.min;
 
@@ -16,8 +29,10 @@ import static java.lang.Math.min;
  * 场景类，管理游戏对象和组件
  */
 public class Scene {
+    private static final Logger log = Logger.getInstance();
     private String name;
     private List<GameObject> gameObjects;
+    private final List<GameObject> gameObjectsView;
     private List<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
     private boolean initialized;
@@ -25,16 +40,38 @@ public class Scene {
     private ExecutorService executor;
     private long parallelTime = 0;
     private int frameCount = 0;
+    private boolean parallelUpdate = true;
+    private boolean logUpdateStats = true;
+    private Profiler profiler;
+    private QualityController qualityController;
+    private final AIScheduler aiScheduler = new AIScheduler(this);
+    private final EntityRegistry registry = new EntityRegistry();
+    private final List<GameObject> removedThisPhase = new ArrayList<>();
+    private final EventBus eventBus = new EventBus();
+    private int batchSection;
+    private final Map<String, Integer> objectSections = new ConcurrentHashMap<>();
     // 移除未使用的组件索引
 
     public Scene(String name) {
         this.name = name;
         this.gameObjects = new ArrayList<>();
+        this.gameObjectsView = Collections.unmodifiableList(gameObjects);
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
         this.time = 0.0f;
-        executor = Executors.newCachedThreadPool();
+        executor = Executors.newCachedThreadPool(Scene::newWorker);
+        eventBus.subscribe(GameEvents.EnemyKilled.class, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                onEnemyKilled();
+            }
+        });
+    }
+
+    private static Thread newWorker(Runnable runnable) {
+        Thread thread = new Thread(runnable, "SceneUpdate");
+        thread.setDaemon(true);
+        return thread;
     }
     
     /**
@@ -53,52 +90,177 @@ public class Scene {
     public void update(float deltaTime) {
         // 更新时间
         time += deltaTime;
+
+        // 分发上一帧剩余的事件
+        eventBus.dispatch();
         
         // 添加新对象
-        for (GameObject obj : objectsToAdd) {
-            gameObjects.add(obj);
-            if (initialized) {
-                obj.initialize();
+        synchronized (objectsToAdd) {
+            if (!objectsToAdd.isEmpty()) {
+                int first = gameObjects.size();
+                gameObjects.addAll(objectsToAdd);
+                if (initialized) {
+                    for (int i = first; i < gameObjects.size(); i++) {
+                        gameObjects.get(i).initialize();
+                    }
+                }
+                for (int i = first; i < gameObjects.size(); i++) {
+                    registry.add(gameObjects.get(i));
+                }
+                objectsToAdd.clear();
             }
         }
-        objectsToAdd.clear();
         
         // 移除标记的对象
-        for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+        synchronized (objectsToRemove) {
+            for (GameObject obj : objectsToRemove) {
+                if (gameObjects.remove(obj)) {
+                    aiScheduler.onRemoved(obj);
+                    removedThisPhase.add(obj);
+                }
+            }
+            objectsToRemove.clear();
         }
-        objectsToRemove.clear();
+        flushRemoved();
+
+        aiScheduler.beginFrame();
         
-        // 更新所有活跃的游戏对象（并行）
         long start = System.nanoTime();
         int sz = gameObjects.size();
+        if (!parallelUpdate) {
+            // 按列表顺序更新，保证结果可复现
+            for (int i = 0; i < sz; i++) {
+                updateObject(gameObjects.get(i), deltaTime);
+            }
+        } else {
+            updateParallel(deltaTime, sz);
+        }
+
+        parallelTime += System.nanoTime() - start;
+
+        gameObjects.removeIf(this::removeInactive);
+        flushRemoved();
+
+        if (++frameCount >= 100) {
+            if (logUpdateStats) {
+                log.info("Objects: %d | %s update: %.2fms\n",
+                    sz, parallelUpdate ? "Parallel" : "Sequential", parallelTime / 1_000_000.0 / frameCount);
+            }
+            parallelTime = frameCount = 0;
+        }
+    }
+
+    /**
+     * 移除已销毁的对象，来自对象池的对象回收到池中
+     */
+    private boolean removeInactive(GameObject obj) {
+        if (obj.isActive()) return false;
+        aiScheduler.onRemoved(obj);
+        removedThisPhase.add(obj);
+        return true;
+    }
+
+    /**
+     * 先从索引中移除本阶段移出场景的对象再回收，回收后对象可能被重新取出并改名
+     */
+    private void flushRemoved() {
+        if (removedThisPhase.isEmpty()) return;
+        registry.removeAll(removedThisPhase);
+        for (GameObject obj : removedThisPhase) {
+            recycle(obj);
+        }
+        removedThisPhase.clear();
+    }
+
+    private static void recycle(GameObject obj) {
+        GameObjectPool pool = obj.getPool();
+        if (pool != null) {
+            pool.release(obj);
+        }
+    }
+
+    /**
+     * 更新所有活跃的游戏对象（并行）
+     */
+    private void updateParallel(float deltaTime, int sz) {
         int batch = (sz + 7) / 8;
         Set<Future<?>> futures = new HashSet<>();
         for(int i = 0; i<batch; i++) {
             final int s = i*8;
             final int e = min((i+1)*8, sz);
             futures.add(executor.submit(() -> {
+                Profiler p = profiler;
+                if (p != null) p.begin(batchSection);
                 for(int j = s; j<e; j++) {
-                    GameObject obj = gameObjects.get(j);
-                    if (obj.isActive()) obj.update(deltaTime);
+                    updateObject(gameObjects.get(j), deltaTime);
                 }
+                if (p != null) p.end(batchSection);
             }));
         }
         for(Future<?> f : futures) {
             try { f.get(); } catch (Exception e) {}
         }
+    }
+    
+    /**
+     * 更新单个对象，启用分析器时按对象名称计时
+     */
+    private void updateObject(GameObject obj, float deltaTime) {
+        if (!obj.isActive()) return;
+        Profiler p = profiler;
+        if (p == null || !p.isEnabled()) {
+            obj.update(deltaTime);
+            return;
+        }
+        Integer section = objectSections.get(obj.getName());
+        if (section == null) {
+            section = objectSections.computeIfAbsent(obj.getName(), n -> p.section("Update." + n));
+        }
+        p.begin(section);
+        obj.update(deltaTime);
+        p.end(section);
+    }
 
-        parallelTime += System.nanoTime() - start;
+    /**
+     * 设置分析器，更新时记录每个工作线程处理各类对象的耗时
+     */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+        objectSections.clear();
+        if (profiler != null) {
+            batchSection = profiler.section("UpdateBatch");
+        }
+    }
 
-        gameObjects.removeIf(obj -> !obj.isActive());
+    public Profiler getProfiler() {
+        return profiler;
+    }
 
-        if (++frameCount >= 100) {
-            System.out.printf("Objects: %d | Parallel update: %.2fms\n",
-                sz, parallelTime / 1_000_000.0 / frameCount);
-            parallelTime = frameCount = 0;
-        }
+    /**
+     * 获取场景的 AI 调度器
+     */
+    public AIScheduler getAIScheduler() {
+        return aiScheduler;
     }
-    
+
+    public void setQualityController(QualityController qualityController) {
+        this.qualityController = qualityController;
+    }
+
+    /**
+     * AI 每隔几帧重新决策一次，负载高时由画质控制器调大
+     */
+    public int getAiUpdateInterval() {
+        return qualityController != null ? qualityController.getAiUpdateInterval() : 1;
+    }
+
+    /**
+     * HUD 文本每隔几帧刷新一次
+     */
+    public int getHudRefreshInterval() {
+        return qualityController != null ? qualityController.getHudRefreshInterval() : 1;
+    }
+
     /**
      * 渲染场景（顺序渲染，OpenGL要求在主线程）
      */
@@ -111,29 +273,152 @@ public class Scene {
     }
 
 
+    /**
+     * 每个 EnemyKilled 事件分发时调用一次，需要整批处理时直接订阅事件
+     */
     public void onEnemyKilled() {
     }
+
+    /**
+     * 场景的事件总线，每帧开始时分发上一帧剩余的事件
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
     
     /**
      * 添加/删除 游戏对象到场景
      */
     public void addGameObject(GameObject gameObject) {
-        objectsToAdd.add(gameObject);
+        synchronized (objectsToAdd) {
+            objectsToAdd.add(gameObject);
+        }
+    }
+
+    /**
+     * 按模板批量创建对象并在下一帧加入场景，initializer 按序号设置每个对象的初始状态（可为 null）
+     */
+    public List<GameObject> spawnBatch(Prefab prefab, int count, ObjIntConsumer<GameObject> initializer) {
+        GameObject[] batch = prefab.instantiate(count);
+        if (initializer != null) {
+            for (int i = 0; i < count; i++) {
+                initializer.accept(batch[i], i);
+            }
+        }
+        List<GameObject> spawned = Arrays.asList(batch);
+        synchronized (objectsToAdd) {
+            objectsToAdd.addAll(spawned);
+        }
+        return spawned;
     }
 
     public void removeGameObject(GameObject gameObject) {
-        objectsToRemove.add(gameObject);
+        synchronized (objectsToRemove) {
+            objectsToRemove.add(gameObject);
+        }
     }
 
+    /**
+     * 设置是否并行更新对象；关闭后按加入顺序更新（确定性模式）
+     */
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    public boolean isParallelUpdate() {
+        return parallelUpdate;
+    }
+
+    /**
+     * 设置并行更新使用的工作线程数，0 表示按需创建线程（默认）
+     */
+    public void setUpdateThreads(int threads) {
+        ExecutorService old = executor;
+        executor = threads > 0
+            ? Executors.newFixedThreadPool(threads, Scene::newWorker)
+            : Executors.newCachedThreadPool(Scene::newWorker);
+        old.shutdown();
+    }
+
+    /**
+     * 设置是否每100帧打印一次更新耗时（基准测试时关闭）
+     */
+    public void setLogUpdateStats(boolean logUpdateStats) {
+        this.logUpdateStats = logUpdateStats;
+    }
 
     /**
-     * 根据名称查找游戏对象
+     * 计算场景状态哈希（位置、旋转、速度、生命值），用于校验回放是否一致
+     */
+    public long computeStateHash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mixHash(hash, Float.floatToIntBits(time));
+        hash = mixHash(hash, gameObjects.size());
+        for (GameObject obj : gameObjects) {
+            hash = hashObject(hash, obj);
+        }
+        synchronized (objectsToAdd) {
+            hash = mixHash(hash, objectsToAdd.size());
+            for (GameObject obj : objectsToAdd) {
+                hash = hashObject(hash, obj);
+            }
+        }
+        return hash;
+    }
+
+    private static long hashObject(long hash, GameObject obj) {
+        hash = mixHash(hash, obj.getName().hashCode());
+        hash = mixHash(hash, obj.isActive() ? 1 : 0);
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        if (transform != null) {
+            Vector2 pos = transform.getPosition();
+            hash = mixHash(hash, Float.floatToIntBits(pos.x));
+            hash = mixHash(hash, Float.floatToIntBits(pos.y));
+            hash = mixHash(hash, Float.floatToIntBits(transform.getRotation()));
+        }
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+        if (physics != null) {
+            Vector2 velocity = physics.getVelocity();
+            hash = mixHash(hash, Float.floatToIntBits(velocity.x));
+            hash = mixHash(hash, Float.floatToIntBits(velocity.y));
+        }
+        HealthComponent health = obj.getComponent(HealthComponent.class);
+        if (health != null) {
+            hash = mixHash(hash, health.getCurrentHealth());
+        }
+        return hash;
+    }
+
+    // FNV-1a
+    private static long mixHash(long hash, int value) {
+        for (int i = 0; i < 4; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+
+    /**
+     * 根据名称查找游戏对象，返回场景列表中第一个同名对象（O(1) 查索引）
      */
     public GameObject findGameObjectByName(String name) {
-        return gameObjects.stream()
-            .filter(obj -> obj.getName().equals(name))
-            .findFirst()
-            .orElse(null);
+        return registry.first(name);
+    }
+
+    /**
+     * 所有同名对象的只读视图，按场景列表顺序，随对象的加入和移除实时变化。
+     * 与场景列表一样包含本帧已销毁但尚未移除的对象
+     */
+    public List<GameObject> getGameObjectsByName(String name) {
+        return registry.withName(name);
+    }
+
+    /**
+     * 带有指定标签的对象的只读视图，按场景列表顺序
+     */
+    public List<GameObject> findGameObjectsByTag(String tag) {
+        return registry.withTag(tag);
     }
 
     /**
@@ -155,6 +440,84 @@ public class Scene {
             .collect(Collectors.toList());
     }
     
+    /**
+     * 捕获场景快照（包括尚未加入/移除的对象）
+     */
+    public SceneSnapshot captureSnapshot() {
+        SceneSnapshot snapshot = new SceneSnapshot(time);
+        Set<GameObject> removing = Collections.newSetFromMap(new IdentityHashMap<>());
+        removing.addAll(objectsToRemove);
+        for (GameObject obj : gameObjects) {
+            SceneSnapshot.Phase phase = removing.contains(obj) ? SceneSnapshot.Phase.REMOVING : SceneSnapshot.Phase.LIVE;
+            SceneSnapshot.EntityState state = SceneSnapshot.EntityState.capture(obj, getSnapshotKind(obj), phase);
+            aiScheduler.captureAgent(obj, state);
+            snapshot.addEntity(state);
+        }
+        for (GameObject obj : objectsToAdd) {
+            snapshot.addEntity(SceneSnapshot.EntityState.capture(obj, getSnapshotKind(obj), SceneSnapshot.Phase.ADDING));
+        }
+        captureSceneState(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 从快照恢复场景，对象由子类通过 createFromSnapshot 重建
+     */
+    public void restoreSnapshot(SceneSnapshot snapshot) {
+        gameObjects.clear();
+        objectsToAdd.clear();
+        objectsToRemove.clear();
+        aiScheduler.clear();
+        registry.clear();
+        eventBus.clearPending();
+        time = snapshot.getSceneTime();
+
+        for (SceneSnapshot.EntityState state : snapshot.getEntities()) {
+            GameObject obj = createFromSnapshot(state);
+            if (obj == null) continue;
+            state.applyTo(obj);
+            SceneSnapshot.Phase phase = state.getPhase();
+            if (phase == SceneSnapshot.Phase.ADDING) {
+                objectsToAdd.add(obj);
+                continue;
+            }
+            if (phase == SceneSnapshot.Phase.REMOVING) {
+                objectsToRemove.add(obj);
+            }
+            gameObjects.add(obj);
+            registry.add(obj);
+            if (initialized) {
+                obj.initialize();
+                aiScheduler.restoreAgent(obj, state);
+            }
+        }
+        restoreSceneState(snapshot);
+    }
+
+    /**
+     * 快照中用于重建对象的类别，默认使用对象名称
+     */
+    protected String getSnapshotKind(GameObject obj) {
+        return obj.getName();
+    }
+
+    /**
+     * 根据快照状态重建对象（需要在子类中实现），返回null表示跳过
+     */
+    protected GameObject createFromSnapshot(SceneSnapshot.EntityState state) {
+        return null;
+    }
+
+    /**
+     * 保存子类的场景级状态（分数、随机数等）
+     */
+    protected void captureSceneState(SceneSnapshot snapshot) { }
+
+    /**
+     * 恢复子类的场景级状态
+     */
+    protected void restoreSceneState(SceneSnapshot snapshot) { }
+
     /**
      * 清空场景
      */
@@ -162,6 +525,17 @@ public class Scene {
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        aiScheduler.clear();
+        registry.clear();
+        eventBus.clearPending();
+    }
+    
+    /**
+     * 停止并行更新和流场计算的工作线程，场景不再使用时调用
+     */
+    public void shutdown() {
+        executor.shutdown();
+        aiScheduler.shutdown();
     }
     
     /**
@@ -172,10 +546,19 @@ public class Scene {
     }
     
     /**
-     * 获取所有游戏对象
+     * 场景中的对象数量，不复制列表
+     */
+    public int getObjectCount() {
+        return gameObjects.size();
+    }
+
+    /**
+     * 所有游戏对象的只读视图，不复制列表。添加和移除都推迟到 update() 开头和结尾处理，
+     * 因此在对象更新、游戏逻辑和渲染中遍历是安全的；视图随场景变化，
+     * 需要跨帧保存或在其他线程使用时请自行复制
      */
     public List<GameObject> getGameObjects() {
-        return new ArrayList<>(gameObjects);
+        return gameObjectsView;
     }
     
     // 移除具体游戏逻辑，让子类实现
@@ -198,5 +581,19 @@ public class Scene {
         return 0;
     }
 
+    /**
+     * 场景使用的对象池，用于统计命中率
+     */
+    public List<GameObjectPool> getPools() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 当前分数，保存录制时写入文件头
+     */
+    public int getScore() {
+        return 0;
+    }
+
     public void onEnemyLimitExceeded() { }
 }
\ No newline at end of file
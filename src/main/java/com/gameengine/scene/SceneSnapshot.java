@@ -0,0 +1,247 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.AttackComponent;
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * 场景快照，记录某一时刻所有游戏对象的完整状态，用于回放关键帧
+ */
+public class SceneSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 对象在快照时刻所处的阶段
+     */
+    public enum Phase {
+        LIVE,       // 已在场景中
+        ADDING,     // 等待下一帧加入
+        REMOVING    // 等待下一帧移除
+    }
+
+    private final float sceneTime;
+    private final List<EntityState> entities;
+    private final Map<String, Number> values;
+    private byte[] randomState;
+
+    public SceneSnapshot(float sceneTime) {
+        this.sceneTime = sceneTime;
+        this.entities = new ArrayList<>();
+        this.values = new HashMap<>();
+    }
+
+    /**
+     * 添加一个对象的状态
+     */
+    public void addEntity(EntityState state) {
+        entities.add(state);
+    }
+
+    public List<EntityState> getEntities() {
+        return Collections.unmodifiableList(entities);
+    }
+
+    public float getSceneTime() {
+        return sceneTime;
+    }
+
+    /**
+     * 保存场景自定义数值（分数、计时器等）
+     */
+    public void putInt(String key, int value) {
+        values.put(key, value);
+    }
+
+    public void putFloat(String key, float value) {
+        values.put(key, value);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Number value = values.get(key);
+        return value != null ? value.intValue() : defaultValue;
+    }
+
+    public float getFloat(String key, float defaultValue) {
+        Number value = values.get(key);
+        return value != null ? value.floatValue() : defaultValue;
+    }
+
+    /**
+     * 保存随机数生成器的内部状态
+     */
+    public void saveRandom(Random random) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(random);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法保存随机数状态", e);
+        }
+        this.randomState = bytes.toByteArray();
+    }
+
+    /**
+     * 恢复随机数生成器，没有保存过时返回null
+     */
+    public Random loadRandom() {
+        if (randomState == null) return null;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+            return (Random) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("无法恢复随机数状态", e);
+        }
+    }
+
+    /**
+     * 单个游戏对象的状态
+     */
+    public static class EntityState implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String kind;
+        private final Phase phase;
+
+        private boolean hasTransform;
+        private float x, y, rotation;
+
+        private boolean hasPhysics;
+        private float vx, vy;
+
+        private boolean hasHealth;
+        private int health;
+        private boolean invincible;
+        private float invincibilityTimer;
+
+        private boolean hasAttack;
+        private boolean attacking;
+        private float attackTimer, cooldownTimer;
+        private float attackDirX, attackDirY;
+
+        private Map<String, Number> values; // 对象和组件自行保存的状态，没有时为 null
+
+        public EntityState(String name, String kind, Phase phase) {
+            this.name = name;
+            this.kind = kind;
+            this.phase = phase;
+        }
+
+        /**
+         * 从游戏对象的组件读取状态
+         */
+        public static EntityState capture(GameObject obj, String kind, Phase phase) {
+            EntityState state = new EntityState(obj.getName(), kind, phase);
+
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                Vector2 pos = transform.getPosition();
+                state.hasTransform = true;
+                state.x = pos.x;
+                state.y = pos.y;
+                state.rotation = transform.getRotation();
+            }
+
+            PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+            if (physics != null) {
+                Vector2 velocity = physics.getVelocity();
+                state.hasPhysics = true;
+                state.vx = velocity.x;
+                state.vy = velocity.y;
+            }
+
+            HealthComponent health = obj.getComponent(HealthComponent.class);
+            if (health != null) {
+                state.hasHealth = true;
+                state.health = health.getCurrentHealth();
+                state.invincible = health.isInvincible();
+                state.invincibilityTimer = health.getInvincibilityTimer();
+            }
+
+            AttackComponent attack = obj.getComponent(AttackComponent.class);
+            if (attack != null) {
+                Vector2 dir = attack.getAttackDirection();
+                state.hasAttack = true;
+                state.attacking = attack.isAttacking();
+                state.attackTimer = attack.getAttackTimer();
+                state.cooldownTimer = attack.getCooldownTimer();
+                state.attackDirX = dir.x;
+                state.attackDirY = dir.y;
+            }
+
+            obj.captureSnapshotState(state);
+            return state;
+        }
+
+        /**
+         * 将状态写回游戏对象的组件
+         */
+        public void applyTo(GameObject obj) {
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (hasTransform && transform != null) {
+                transform.setPosition(new Vector2(x, y));
+                transform.setRotation(rotation);
+            }
+
+            PhysicsComponent physics = obj.getComponent(PhysicsComponent.class);
+            if (hasPhysics && physics != null) {
+                physics.setVelocity(vx, vy);
+            }
+
+            HealthComponent healthComponent = obj.getComponent(HealthComponent.class);
+            if (hasHealth && healthComponent != null) {
+                healthComponent.restoreState(health, invincible, invincibilityTimer);
+            }
+
+            AttackComponent attack = obj.getComponent(AttackComponent.class);
+            if (hasAttack && attack != null) {
+                attack.restoreState(attacking, attackTimer, cooldownTimer, new Vector2(attackDirX, attackDirY));
+            }
+
+            obj.restoreSnapshotState(this);
+        }
+
+        /**
+         * 保存对象或组件自定义的数值（缓存的决策、私有计时器等），组件的键以组件名为前缀
+         */
+        public void putInt(String key, int value) {
+            if (values == null) values = new HashMap<>();
+            values.put(key, value);
+        }
+
+        public void putFloat(String key, float value) {
+            if (values == null) values = new HashMap<>();
+            values.put(key, value);
+        }
+
+        public boolean hasValue(String key) {
+            return values != null && values.containsKey(key);
+        }
+
+        public int getInt(String key, int defaultValue) {
+            Number value = values != null ? values.get(key) : null;
+            return value != null ? value.intValue() : defaultValue;
+        }
+
+        public float getFloat(String key, float defaultValue) {
+            Number value = values != null ? values.get(key) : null;
+            return value != null ? value.floatValue() : defaultValue;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gameengine.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：一次分析器作用域（帧阶段），与 GC、分配、锁事件显示在同一时间轴上
+ */
+@Name("com.gameengine.FramePhase")
+@Label("Frame Phase")
+@Category({"Game Engine"})
+@Description("Profiler scope timed by the game engine")
+@StackTrace(false)
+final class FramePhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Frame")
+    long frame;
+
+    @Label("Entity Count")
+    int entityCount;
+
+    @Label("Depth")
+    int depth;
+}
@@ -0,0 +1,272 @@
+package com.gameengine.util;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志：调用方只把消息写入无锁环形缓冲区，由后台线程格式化并输出到控制台，
+ * 游戏线程不会因为控制台输出而阻塞。缓冲区满时丢弃新消息并计数；
+ * 同一模板每秒最多输出 maxPerSecond 条，超出的条数在下一秒或 flush() 时汇总输出。
+ * 带参数的消息在后台线程格式化，参数应为数字、字符串等不会再被修改的值
+ */
+public final class Logger {
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 4096; // 必须是 2 的幂
+    private static final long IDLE_PARK_NANOS = 2_000_000L;
+    private static final long FLUSH_TIMEOUT_NANOS = 1_000_000_000L;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static Logger instance;
+
+    // Vyukov 有界队列：sequences[i] 表示槽位 i 当前可写入（== 位置）或可读取（== 位置 + 1）
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private final Level[] levels = new Level[CAPACITY];
+    private final String[] templates = new String[CAPACITY];
+    private final Object[][] arguments = new Object[CAPACITY][];
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // 只在 drain() 的锁内访问
+    private final AtomicLong drained = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile Level level = Level.INFO;
+    private volatile int maxPerSecond = 20;
+    private final Map<String, int[]> rateWindow = new HashMap<>(); // 模板 -> {本秒已输出, 本秒省略}
+    private long windowStart;
+    private long suppressedCount;
+
+    private final Thread writer;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private Logger() {
+        this.out = System.out;
+        this.err = System.err;
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        writer = new Thread(this::drainLoop, "Logger");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "LoggerFlush"));
+    }
+
+    public static synchronized Logger getInstance() {
+        if (instance == null) {
+            instance = new Logger();
+        }
+        return instance;
+    }
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, NO_ARGS);
+    }
+
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, NO_ARGS);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, NO_ARGS);
+    }
+
+    public void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, NO_ARGS);
+    }
+
+    public void error(String format, Object... args) {
+        log(Level.ERROR, format, args);
+    }
+
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel.ordinal() >= level.ordinal();
+    }
+
+    /**
+     * 写入环形缓冲区，不加锁、不阻塞；缓冲区满时丢弃
+     */
+    public void log(Level messageLevel, String template, Object[] args) {
+        if (!isEnabled(messageLevel)) return;
+        while (true) {
+            long pos = tail.get();
+            int index = (int) pos & (CAPACITY - 1);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    levels[index] = messageLevel;
+                    templates[index] = template;
+                    arguments[index] = args;
+                    sequences.lazySet(index, pos + 1);
+                    return;
+                }
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder outBuffer = new StringBuilder();
+        StringBuilder errBuffer = new StringBuilder();
+        while (true) {
+            if (!drain(outBuffer, errBuffer)) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 取出当前所有消息，按级别合并后各输出一次，返回是否取到了消息
+     */
+    private synchronized boolean drain(StringBuilder outBuffer, StringBuilder errBuffer) {
+        long now = System.nanoTime();
+        if (now - windowStart >= 1_000_000_000L) {
+            reportSuppressed(outBuffer, true);
+            windowStart = now;
+        }
+        int count = 0;
+        while (true) {
+            int index = (int) head & (CAPACITY - 1);
+            if (sequences.get(index) != head + 1) break;
+            Level messageLevel = levels[index];
+            String template = templates[index];
+            Object[] args = arguments[index];
+            templates[index] = null;
+            arguments[index] = null;
+            sequences.lazySet(index, head + CAPACITY);
+            head++;
+            count++;
+            if (!allow(template)) continue;
+            StringBuilder target = messageLevel.ordinal() >= Level.WARN.ordinal() ? errBuffer : outBuffer;
+            format(target, template, args);
+        }
+        if (count > 0) {
+            drained.addAndGet(count);
+        }
+        write(out, outBuffer);
+        write(err, errBuffer);
+        return count > 0;
+    }
+
+    private boolean allow(String template) {
+        int[] window = rateWindow.computeIfAbsent(template, key -> new int[2]);
+        if (window[0] < maxPerSecond) {
+            window[0]++;
+            return true;
+        }
+        window[1]++;
+        suppressedCount++;
+        return false;
+    }
+
+    /**
+     * 输出各模板被省略的条数；endWindow 为 true 时开始新的一秒
+     */
+    private void reportSuppressed(StringBuilder target, boolean endWindow) {
+        Iterator<Map.Entry<String, int[]>> it = rateWindow.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, int[]> entry = it.next();
+            int[] window = entry.getValue();
+            if (window[1] > 0) {
+                target.append("（省略 ").append(window[1]).append(" 条日志: ")
+                    .append(entry.getKey().trim()).append("）\n");
+                window[1] = 0;
+            }
+            if (!endWindow) continue;
+            if (window[0] == 0) {
+                it.remove();
+            } else {
+                window[0] = 0;
+            }
+        }
+    }
+
+    private static void format(StringBuilder target, String template, Object[] args) {
+        try {
+            target.append(args.length == 0 ? template : String.format(template, args));
+        } catch (RuntimeException e) {
+            target.append(template).append("（格式化失败: ").append(e).append('）');
+        }
+        int length = target.length();
+        if (length == 0 || target.charAt(length - 1) != '\n') {
+            target.append('\n');
+        }
+    }
+
+    private static void write(PrintStream stream, StringBuilder buffer) {
+        if (buffer.length() == 0) return;
+        stream.print(buffer);
+        stream.flush();
+        buffer.setLength(0);
+    }
+
+    /**
+     * 等待调用前写入的消息全部输出（例如退出前或打印结果之前）
+     */
+    public void flush() {
+        if (Thread.currentThread() == writer) return;
+        long target = tail.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        StringBuilder outBuffer = new StringBuilder();
+        StringBuilder errBuffer = new StringBuilder();
+        while (drained.get() < target && System.nanoTime() < deadline) {
+            if (!drain(outBuffer, errBuffer)) {
+                Thread.onSpinWait();
+            }
+        }
+        synchronized (this) {
+            reportSuppressed(outBuffer, false);
+            write(out, outBuffer);
+        }
+    }
+
+    /**
+     * 低于该级别的消息直接忽略，默认 INFO
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 同一模板每秒最多输出的条数
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = Math.max(1, maxPerSecond);
+    }
+
+    /**
+     * 因缓冲区已满而丢弃的消息数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 因限流而省略的消息数
+     */
+    public synchronized long getSuppressedCount() {
+        return suppressedCount;
+    }
+}
@@ -1,32 +1,119 @@
 package com.gameengine.util;
 
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 性能分析器 - 用于测量游戏各部分的时间消耗
+ *
+ * 区域名称通过 section() 预先解析为整数ID，热路径上的 begin/end 只做数组读写，
+ * 每个区域的历史数据保存在固定大小的环形缓冲区中，同时维护一份有序副本，
+ * 写入时只移动一段数组，读取百分位数时不需要复制和排序
+ *
+ * 每个线程有自己的作用域栈和累加器，可以嵌套计时，也可以在并行更新的工作线程中计时；
+ * endFrame 在主线程把各线程的数据合并，调用时工作线程的作用域应已全部结束
  */
 public class Profiler {
+    private static final Logger log = Logger.getInstance();
     private static Profiler instance;
-
-    // 当前帧的计时数据
-    private Map<String, Long> startTimes;
-    private Map<String, Long> durations;
-
-    // 历史数据（用于计算平均值）
-    private Map<String, List<Long>> history;
-    private int historySize = 60; // 保存60帧的历史数据
-
-    // 统计数据
-    private Map<String, ProfileData> stats;
+    private static final int INITIAL_CAPACITY = 32;
+
+    // 区域名称与ID
+    private final Map<String, Integer> sectionIds;
+    private String[] names;
+    private int sectionCount;
+
+    // 各线程的作用域栈和本帧数据
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(this::registerThread);
+    private final List<ThreadState> threads = new CopyOnWriteArrayList<>();
+
+    // 合并后的本帧数据，按区域ID索引
+    private long[] frameDurations;
+    private long[] frameAllocations;
+    private boolean[] frameTouched;
+
+    // 历史数据：每个区域一个环形缓冲区（用于计算平均值）和同样内容的有序数组（用于百分位数）
+    private final int historySize = 60; // 保存60帧的历史数据
+    private long[][] history;
+    private long[][] sortedHistory;
+    private int[] historyCount;
+    private int[] historyHead;
+    private long[] historySum;
+    private long[] lastDurations;
+    private long[] lastFrames; // lastDurations 对应的帧号
+    private long[][] allocHistory;
+    private long[] allocSum;
+    private long[] lastAllocations;
+
+    // 内存分配和GC：每帧所有线程分配的字节数和GC次数
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final List<GarbageCollectorMXBean> gcBeans;
+    private volatile boolean allocationTracking;
+    private final long[] frameAllocHistory;
+    private int frameAllocCount;
+    private int frameAllocHead;
+    private long frameAllocSum;
+    private volatile long lastFrameAllocated;
+    private volatile long lastFrameGcCount;
+    private volatile long lastFrameGcTime;
+    private long gcCountMark = -1;
+    private long gcTimeMark;
+
+    // 统计数据，读取时按需计算
+    private ProfileData[] stats;
+    private boolean[] statsDirty;
+
+    // 追踪捕获：记录最近若干帧的每个作用域，写出为 Chrome Trace JSON
+    private static final int TRACE_CAPACITY = 1 << 18;
+    private TraceBuffer traceBuffer;
+    private volatile boolean tracing;
+    private volatile boolean traceWriting;
+    private int traceFramesLeft;
+    private String tracePath;
+
+    // JFR：启用时每个作用域同时作为 FramePhaseEvent 提交
+    private volatile boolean jfrEnabled = Boolean.getBoolean("gameengine.jfr");
+    private volatile int entityCount;
+    private volatile long frameNumber;
 
     private boolean enabled = true;
 
-    private Profiler() {
-        this.startTimes = new ConcurrentHashMap<>();
-        this.durations = new ConcurrentHashMap<>();
-        this.history = new ConcurrentHashMap<>();
-        this.stats = new ConcurrentHashMap<>();
+    /**
+     * 创建独立的分析器上下文（例如并行回放），窗口游戏使用 getInstance()
+     */
+    public Profiler() {
+        this.sectionIds = new HashMap<>();
+        this.names = new String[INITIAL_CAPACITY];
+        this.frameDurations = new long[INITIAL_CAPACITY];
+        this.frameAllocations = new long[INITIAL_CAPACITY];
+        this.frameTouched = new boolean[INITIAL_CAPACITY];
+        this.history = new long[INITIAL_CAPACITY][];
+        this.sortedHistory = new long[INITIAL_CAPACITY][];
+        this.historyCount = new int[INITIAL_CAPACITY];
+        this.historyHead = new int[INITIAL_CAPACITY];
+        this.historySum = new long[INITIAL_CAPACITY];
+        this.lastDurations = new long[INITIAL_CAPACITY];
+        this.lastFrames = new long[INITIAL_CAPACITY];
+        this.allocHistory = new long[INITIAL_CAPACITY][];
+        this.allocSum = new long[INITIAL_CAPACITY];
+        this.lastAllocations = new long[INITIAL_CAPACITY];
+        this.stats = new ProfileData[INITIAL_CAPACITY];
+        this.statsDirty = new boolean[INITIAL_CAPACITY];
+        this.frameAllocHistory = new long[historySize];
+        this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threadBean = (com.sun.management.ThreadMXBean) bean;
+        } else {
+            this.threadBean = null;
+        }
+        // 每次 begin/end 都要查询线程分配量，默认关闭
+        setAllocationTracking(Boolean.getBoolean("gameengine.alloc"));
     }
 
     public static Profiler getInstance() {
@@ -37,88 +124,307 @@ public class Profiler {
     }
 
     /**
-     * 开始计时一个区域
+     * 获取区域ID，首次使用时注册，调用方应在初始化时解析并保存
      */
-    public void begin(String section) {
-        if (!enabled) return;
-        startTimes.put(section, System.nanoTime());
+    public synchronized int section(String name) {
+        Integer id = sectionIds.get(name);
+        if (id != null) return id;
+
+        if (sectionCount == names.length) {
+            grow(names.length * 2);
+        }
+        int newId = sectionCount++;
+        names[newId] = name;
+        history[newId] = new long[historySize];
+        sortedHistory[newId] = new long[historySize];
+        allocHistory[newId] = new long[historySize];
+        stats[newId] = new ProfileData();
+        sectionIds.put(name, newId);
+        return newId;
+    }
+
+    private void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        frameDurations = Arrays.copyOf(frameDurations, capacity);
+        frameAllocations = Arrays.copyOf(frameAllocations, capacity);
+        frameTouched = Arrays.copyOf(frameTouched, capacity);
+        history = Arrays.copyOf(history, capacity);
+        sortedHistory = Arrays.copyOf(sortedHistory, capacity);
+        historyCount = Arrays.copyOf(historyCount, capacity);
+        historyHead = Arrays.copyOf(historyHead, capacity);
+        historySum = Arrays.copyOf(historySum, capacity);
+        lastDurations = Arrays.copyOf(lastDurations, capacity);
+        lastFrames = Arrays.copyOf(lastFrames, capacity);
+        allocHistory = Arrays.copyOf(allocHistory, capacity);
+        allocSum = Arrays.copyOf(allocSum, capacity);
+        lastAllocations = Arrays.copyOf(lastAllocations, capacity);
+        stats = Arrays.copyOf(stats, capacity);
+        statsDirty = Arrays.copyOf(statsDirty, capacity);
+    }
+
+    private ThreadState registerThread() {
+        ThreadState state = new ThreadState(Thread.currentThread(), names.length);
+        threads.add(state);
+        return state;
     }
 
     /**
-     * 结束计时一个区域
+     * 开始计时一个区域，嵌套在当前线程已开始的区域中
      */
-    public void end(String section) {
+    public void begin(int section) {
         if (!enabled) return;
-
-        Long startTime = startTimes.get(section);
-        if (startTime == null) {
-            System.err.println("Profiler: end() called without begin() for section: " + section);
-            return;
+        ThreadState state = threadState.get();
+        state.push(section, System.nanoTime(), allocationTracking ? threadBean.getCurrentThreadAllocatedBytes() : -1);
+        if (jfrEnabled) {
+            state.beginEvent();
         }
+    }
 
-        long duration = System.nanoTime() - startTime;
-        durations.put(section, duration);
-
-        // 添加到历史记录
-        history.computeIfAbsent(section, k -> new ArrayList<>()).add(duration);
+    /**
+     * 结束计时一个区域，同一帧内多次计时会累加
+     */
+    public void end(int section) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        long allocated = allocationTracking ? threadBean.getCurrentThreadAllocatedBytes() : -1;
+        ThreadState state = threadState.get();
+        long start = state.pop(section, now, allocated);
+        if (start < 0) {
+            log.error("Profiler: end() called without begin() for section: %s", names[section]);
+        } else {
+            if (tracing) {
+                traceBuffer.record(section, start, now, state.threadId);
+            }
+            if (state.poppedEvent != null) {
+                commitEvent(state.poppedEvent, section, state.depth);
+                state.poppedEvent = null;
+            }
+        }
+    }
 
-        // 限制历史记录大小
-        List<Long> hist = history.get(section);
-        if (hist.size() > historySize) {
-            hist.remove(0);
+    private void commitEvent(FramePhaseEvent event, int section, int depth) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = names[section];
+            event.frame = frameNumber;
+            event.entityCount = entityCount;
+            event.depth = depth;
+            event.commit();
         }
+    }
+
+    /**
+     * 按名称开始计时，每次调用都需要查找ID，热路径上应使用 begin(int)
+     */
+    public void begin(String section) {
+        if (!enabled) return;
+        begin(section(section));
+    }
 
-        startTimes.remove(section);
+    /**
+     * 按名称结束计时
+     */
+    public void end(String section) {
+        if (!enabled) return;
+        end(section(section));
     }
 
     /**
-     * 结束当前帧，计算统计数据
+     * 结束当前帧，合并各线程的数据并写入环形缓冲区
      */
     public void endFrame() {
         if (!enabled) return;
+        frameNumber++;
 
-        // 计算每个区域的统计数据
-        for (Map.Entry<String, Long> entry : durations.entrySet()) {
-            String section = entry.getKey();
-            long duration = entry.getValue();
+        long frameAllocated = 0;
+        for (ThreadState state : threads) {
+            state.merge(frameDurations, frameAllocations, frameTouched);
+            if (allocationTracking) {
+                frameAllocated += state.sampleAllocated(threadBean);
+            }
+            if (!state.thread.isAlive()) {
+                threads.remove(state);
+            }
+        }
+        if (allocationTracking) {
+            recordFrameAllocation(frameAllocated);
+        }
+        sampleGc();
+
+        if (tracing) {
+            long now = System.nanoTime();
+            traceBuffer.record(TraceBuffer.FRAME_MARKER, now, now, Thread.currentThread().getId());
+            if (--traceFramesLeft <= 0) {
+                finishTraceCapture();
+            }
+        }
 
-            ProfileData data = stats.computeIfAbsent(section, k -> new ProfileData());
-            data.lastDuration = duration;
+        for (int id = 0; id < sectionCount; id++) {
+            if (!frameTouched[id]) continue;
+            long duration = frameDurations[id];
+            long allocatedBytes = frameAllocations[id];
+            frameTouched[id] = false;
+            frameDurations[id] = 0;
+            frameAllocations[id] = 0;
+            lastDurations[id] = duration;
+            lastFrames[id] = frameNumber;
+            lastAllocations[id] = allocatedBytes;
+
+            long[] ring = history[id];
+            long[] allocRing = allocHistory[id];
+            int head = historyHead[id];
+            if (historyCount[id] == ring.length) {
+                historySum[id] -= ring[head];
+                allocSum[id] -= allocRing[head];
+                replaceSorted(sortedHistory[id], ring.length, ring[head], duration);
+            } else {
+                insertSorted(sortedHistory[id], historyCount[id], duration);
+                historyCount[id]++;
+            }
+            ring[head] = duration;
+            allocRing[head] = allocatedBytes;
+            historySum[id] += duration;
+            allocSum[id] += allocatedBytes;
+            historyHead[id] = head + 1 == ring.length ? 0 : head + 1;
+            statsDirty[id] = true;
+        }
+    }
 
-            // 计算平均值
-            List<Long> hist = history.get(section);
-            if (hist != null && !hist.isEmpty()) {
-                long sum = 0;
-                long max = Long.MIN_VALUE;
-                long min = Long.MAX_VALUE;
+    /**
+     * 把 value 插入 sorted 的前 count 个元素中，保持升序
+     */
+    private static void insertSorted(long[] sorted, int count, long value) {
+        int index = insertionPoint(sorted, count, value);
+        System.arraycopy(sorted, index, sorted, index + 1, count - index);
+        sorted[index] = value;
+    }
 
-                for (long d : hist) {
-                    sum += d;
-                    max = Math.max(max, d);
-                    min = Math.min(min, d);
-                }
+    /**
+     * 在已满的有序数组中用 added 替换 removed，只移动两者之间的元素
+     */
+    static void replaceSorted(long[] sorted, int count, long removed, long added) {
+        int from = Arrays.binarySearch(sorted, 0, count, removed);
+        if (added >= removed) {
+            int to = insertionPoint(sorted, count, added) - 1;
+            System.arraycopy(sorted, from + 1, sorted, from, to - from);
+            sorted[to] = added;
+        } else {
+            int to = insertionPoint(sorted, count, added);
+            System.arraycopy(sorted, to, sorted, to + 1, from - to);
+            sorted[to] = added;
+        }
+    }
 
-                data.avgDuration = sum / hist.size();
-                data.maxDuration = max;
-                data.minDuration = min;
+    /**
+     * 第一个大于 value 的位置
+     */
+    private static int insertionPoint(long[] sorted, int count, long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
+        return low;
+    }
+
+    private void recordFrameAllocation(long bytes) {
+        lastFrameAllocated = bytes;
+        if (frameAllocCount == frameAllocHistory.length) {
+            frameAllocSum -= frameAllocHistory[frameAllocHead];
+        } else {
+            frameAllocCount++;
+        }
+        frameAllocHistory[frameAllocHead] = bytes;
+        frameAllocSum += bytes;
+        frameAllocHead = frameAllocHead + 1 == frameAllocHistory.length ? 0 : frameAllocHead + 1;
+    }
+
+    private void sampleGc() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            count += Math.max(0, bean.getCollectionCount());
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        if (gcCountMark >= 0) {
+            lastFrameGcCount = count - gcCountMark;
+            lastFrameGcTime = time - gcTimeMark;
+        }
+        gcCountMark = count;
+        gcTimeMark = time;
+    }
+
+    /**
+     * 计算某个区域在历史窗口内的统计数据
+     */
+    private ProfileData computeStats(int id) {
+        ProfileData data = stats[id];
+        if (!statsDirty[id]) return data;
+
+        int count = historyCount[id];
+        long[] sorted = sortedHistory[id];
+
+        data.lastDuration = lastDurations[id];
+        data.avgDuration = historySum[id] / count;
+        data.lastAllocatedBytes = lastAllocations[id];
+        data.avgAllocatedBytes = allocSum[id] / count;
+        data.minDuration = sorted[0];
+        data.maxDuration = sorted[count - 1];
+        data.p50Duration = sorted[percentileIndex(count, 0.50)];
+        data.p95Duration = sorted[percentileIndex(count, 0.95)];
+        data.p99Duration = sorted[percentileIndex(count, 0.99)];
+        statsDirty[id] = false;
+        return data;
+    }
+
+    private static int percentileIndex(int count, double percentile) {
+        return Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+    }
+
+    /**
+     * 获取某个区域的统计数据，没有数据时返回null
+     */
+    public ProfileData getStats(int section) {
+        if (section < 0 || section >= sectionCount || historyCount[section] == 0) return null;
+        return computeStats(section);
+    }
 
-        durations.clear();
+    /**
+     * 某个区域上一帧的总耗时（纳秒），上一帧没有计时时返回0
+     */
+    public long getLastFrameDuration(int section) {
+        if (section < 0 || section >= sectionCount || lastFrames[section] != frameNumber) return 0;
+        return lastDurations[section];
     }
 
     /**
      * 获取某个区域的统计数据
      */
     public ProfileData getStats(String section) {
-        return stats.get(section);
+        Integer id;
+        synchronized (this) {
+            id = sectionIds.get(section);
+        }
+        return id != null ? getStats(id) : null;
     }
 
     /**
      * 获取所有统计数据
      */
     public Map<String, ProfileData> getAllStats() {
-        return new HashMap<>(stats);
+        Map<String, ProfileData> result = new HashMap<>();
+        for (int id = 0; id < sectionCount; id++) {
+            ProfileData data = getStats(id);
+            if (data != null) {
+                result.put(names[id], data);
+            }
+        }
+        return result;
     }
 
     /**
@@ -129,7 +435,7 @@ public class Profiler {
         sb.append("=== Performance Profile ===\n");
 
         // 按平均时间排序
-        List<Map.Entry<String, ProfileData>> entries = new ArrayList<>(stats.entrySet());
+        List<Map.Entry<String, ProfileData>> entries = new ArrayList<>(getAllStats().entrySet());
         entries.sort((a, b) -> Long.compare(b.getValue().avgDuration, a.getValue().avgDuration));
 
         long totalTime = 0;
@@ -140,15 +446,15 @@ public class Profiler {
         for (Map.Entry<String, ProfileData> entry : entries) {
             String section = entry.getKey();
             ProfileData data = entry.getValue();
-
-            double avgMs = data.avgDuration / 1_000_000.0;
-            double lastMs = data.lastDuration / 1_000_000.0;
-            double maxMs = data.maxDuration / 1_000_000.0;
-            double minMs = data.minDuration / 1_000_000.0;
             double percentage = totalTime > 0 ? (data.avgDuration * 100.0 / totalTime) : 0;
 
-            sb.append(String.format("%-20s: %.3fms (%.1f%%) [last: %.3fms, min: %.3fms, max: %.3fms]\n",
-                section, avgMs, percentage, lastMs, minMs, maxMs));
+            sb.append(String.format("%-20s: %.3fms (%.1f%%) [last: %.3fms, p50: %.3fms, p95: %.3fms, p99: %.3fms, max: %.3fms] alloc: %.1fKB\n",
+                section, data.getAvgMs(), percentage, data.getLastMs(), data.getP50Ms(), data.getP95Ms(),
+                data.getP99Ms(), data.getMaxMs(), data.getAvgAllocatedKB()));
+        }
+        if (allocationTracking) {
+            sb.append(String.format("\nAllocated: %.1fKB/frame (last %.1fKB), GC: %d (last frame)\n",
+                getAvgFrameAllocatedBytes() / 1024.0, lastFrameAllocated / 1024.0, lastFrameGcCount));
         }
 
         double totalMs = totalTime / 1_000_000.0;
@@ -158,13 +464,173 @@ public class Profiler {
     }
 
     /**
-     * 清空所有数据
+     * 获取上一帧各线程的作用域数据，按线程和调用层级排列
+     */
+    public List<ThreadScope> getThreadBreakdown() {
+        List<ThreadScope> result = new ArrayList<>();
+        for (ThreadState state : threads) {
+            state.collect(-1, 0, names, result);
+        }
+        return result;
+    }
+
+    /**
+     * 获取上一帧各线程的层级报告
+     */
+    public String getThreadReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Thread Breakdown (last frame) ===\n");
+        long currentThread = -1;
+        for (ThreadScope scope : getThreadBreakdown()) {
+            if (scope.threadId != currentThread) {
+                currentThread = scope.threadId;
+                sb.append(String.format("[%s #%d]\n", scope.threadName, scope.threadId));
+            }
+            sb.append(String.format("%" + (2 + scope.depth * 2) + "s%-20s: %.3fms x%d %.1fKB\n",
+                "", scope.section, scope.getMs(), scope.count, scope.allocatedBytes / 1024.0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 开始捕获接下来若干帧的追踪数据，结束后在后台写出到文件
+     */
+    public boolean startTraceCapture(int frames, String filepath) {
+        if (tracing || traceWriting) {
+            log.error("Profiler: 上一次追踪捕获尚未完成");
+            return false;
+        }
+        if (traceBuffer == null) {
+            traceBuffer = new TraceBuffer(TRACE_CAPACITY);
+        }
+        traceBuffer.reset(System.nanoTime());
+        traceFramesLeft = frames;
+        tracePath = filepath;
+        tracing = true;
+        log.info("开始捕获性能追踪，共 " + frames + " 帧");
+        return true;
+    }
+
+    public boolean isCapturingTrace() {
+        return tracing || traceWriting;
+    }
+
+    private void finishTraceCapture() {
+        tracing = false;
+        traceWriting = true;
+        String[] sectionNames = Arrays.copyOf(names, sectionCount);
+        Map<Long, String> threadNames = new LinkedHashMap<>();
+        for (ThreadState state : threads) {
+            threadNames.put(state.threadId, state.threadName);
+        }
+        String path = tracePath;
+
+        Thread writer = new Thread(() -> {
+            try {
+                traceBuffer.writeJson(path, sectionNames, threadNames);
+                log.info("性能追踪已保存到: " + path + "，共 " + traceBuffer.getSize() + " 个事件"
+                    + (traceBuffer.getDropped() > 0 ? "，缓冲区已满丢弃 " + traceBuffer.getDropped() + " 个" : ""));
+            } catch (IOException e) {
+                log.error("保存性能追踪失败: " + e.getMessage());
+            } finally {
+                traceWriting = false;
+            }
+        }, "TraceWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 清空所有数据，已注册的区域ID保持有效
      */
     public void reset() {
-        startTimes.clear();
-        durations.clear();
-        history.clear();
-        stats.clear();
+        Arrays.fill(frameDurations, 0);
+        Arrays.fill(frameAllocations, 0);
+        Arrays.fill(frameTouched, false);
+        Arrays.fill(historyCount, 0);
+        Arrays.fill(historyHead, 0);
+        Arrays.fill(historySum, 0);
+        Arrays.fill(lastFrames, -1);
+        Arrays.fill(allocSum, 0);
+        Arrays.fill(statsDirty, false);
+        frameAllocCount = 0;
+        frameAllocHead = 0;
+        frameAllocSum = 0;
+    }
+
+    /**
+     * 启用/禁用每个作用域的内存分配统计（需要 HotSpot 的 ThreadMXBean 扩展），
+     * 默认关闭，也可以用 -Dgameengine.alloc=true 开启
+     */
+    public void setAllocationTracking(boolean allocationTracking) {
+        if (allocationTracking && threadBean != null) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.allocationTracking = allocationTracking && threadBean != null;
+    }
+
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    /**
+     * 上一帧所有线程分配的字节数
+     */
+    public long getLastFrameAllocatedBytes() {
+        return lastFrameAllocated;
+    }
+
+    /**
+     * 最近60帧平均每帧分配的字节数
+     */
+    public long getAvgFrameAllocatedBytes() {
+        return frameAllocCount > 0 ? frameAllocSum / frameAllocCount : 0;
+    }
+
+    /**
+     * 上一帧发生的GC次数
+     */
+    public long getLastFrameGcCount() {
+        return lastFrameGcCount;
+    }
+
+    /**
+     * 上一帧GC耗时（毫秒）
+     */
+    public long getLastFrameGcTime() {
+        return lastFrameGcTime;
+    }
+
+    /**
+     * 启动以来的GC总次数
+     */
+    public long getTotalGcCount() {
+        return Math.max(0, gcCountMark);
+    }
+
+    /**
+     * 启用后作用域会作为 JFR 事件提交（也可以用 -Dgameengine.jfr=true 开启）
+     */
+    public void setJfrEnabled(boolean jfrEnabled) {
+        this.jfrEnabled = jfrEnabled;
+    }
+
+    public boolean isJfrEnabled() {
+        return jfrEnabled;
+    }
+
+    /**
+     * 设置当前实体数量，附加到之后提交的 JFR 事件
+     */
+    public void setEntityCount(int entityCount) {
+        this.entityCount = entityCount;
+    }
+
+    /**
+     * 已结束的帧数
+     */
+    public long getFrameNumber() {
+        return frameNumber;
     }
 
     /**
@@ -178,6 +644,216 @@ public class Profiler {
         return enabled;
     }
 
+    /**
+     * 单个线程的作用域栈和累加器，只由所属线程写入，endFrame 时由主线程合并
+     */
+    private static final class ThreadState {
+        static final int MAX_DEPTH = 32;
+
+        final Thread thread;
+        final String threadName;
+        final long threadId;
+
+        int[] stackIds = new int[16];
+        long[] stackStarts = new long[16];
+        long[] stackAllocs = new long[16];
+        FramePhaseEvent[] stackEvents = new FramePhaseEvent[16];
+        FramePhaseEvent poppedEvent;
+        int depth;
+
+        long allocatedMark = -1;
+
+        // 本帧数据
+        long[] durations;
+        long[] allocs;
+        int[] counts;
+        int[] parents;
+        int[] touched;
+        int touchedCount;
+
+        // 上一帧合并后的数据，供报告使用
+        long[] lastDurations;
+        long[] lastAllocs;
+        int[] lastCounts;
+        int[] lastParents;
+        int[] lastTouched;
+        int lastTouchedCount;
+
+        ThreadState(Thread thread, int capacity) {
+            this.thread = thread;
+            this.threadName = thread.getName();
+            this.threadId = thread.getId();
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            durations = new long[capacity];
+            allocs = new long[capacity];
+            counts = new int[capacity];
+            parents = new int[capacity];
+            touched = new int[capacity];
+            lastDurations = new long[capacity];
+            lastAllocs = new long[capacity];
+            lastCounts = new int[capacity];
+            lastParents = new int[capacity];
+            lastTouched = new int[capacity];
+        }
+
+        private void ensureCapacity(int section) {
+            if (section < durations.length) return;
+            int capacity = Math.max(section + 1, durations.length * 2);
+            durations = Arrays.copyOf(durations, capacity);
+            allocs = Arrays.copyOf(allocs, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            touched = Arrays.copyOf(touched, capacity);
+            lastDurations = Arrays.copyOf(lastDurations, capacity);
+            lastAllocs = Arrays.copyOf(lastAllocs, capacity);
+            lastCounts = Arrays.copyOf(lastCounts, capacity);
+            lastParents = Arrays.copyOf(lastParents, capacity);
+            lastTouched = Arrays.copyOf(lastTouched, capacity);
+        }
+
+        void push(int section, long now, long allocated) {
+            if (depth == stackIds.length) {
+                stackIds = Arrays.copyOf(stackIds, depth * 2);
+                stackStarts = Arrays.copyOf(stackStarts, depth * 2);
+                stackAllocs = Arrays.copyOf(stackAllocs, depth * 2);
+                stackEvents = Arrays.copyOf(stackEvents, depth * 2);
+            }
+            stackIds[depth] = section;
+            stackEvents[depth] = null;
+            stackAllocs[depth] = allocated;
+            stackStarts[depth++] = now;
+        }
+
+        /**
+         * 为刚开始的作用域创建 JFR 事件
+         */
+        void beginEvent() {
+            FramePhaseEvent event = new FramePhaseEvent();
+            event.begin();
+            stackEvents[depth - 1] = event;
+        }
+
+        /**
+         * 结束最近开始的同名区域，中间未结束的区域一并丢弃，返回开始时间，找不到时返回-1
+         */
+        long pop(int section, long now, long allocated) {
+            int index = depth - 1;
+            while (index >= 0 && stackIds[index] != section) {
+                index--;
+            }
+            if (index < 0) return -1;
+
+            depth = index;
+            poppedEvent = stackEvents[index];
+            stackEvents[index] = null;
+            ensureCapacity(section);
+            if (counts[section] == 0) {
+                touched[touchedCount++] = section;
+                parents[section] = index > 0 ? stackIds[index - 1] : -1;
+            }
+            long start = stackStarts[index];
+            durations[section] += now - start;
+            if (allocated >= 0 && stackAllocs[index] >= 0) {
+                allocs[section] += allocated - stackAllocs[index];
+            }
+            counts[section]++;
+            return start;
+        }
+
+        /**
+         * 把本帧数据累加到合并结果，并保留为上一帧数据
+         */
+        void merge(long[] frameDurations, long[] frameAllocations, boolean[] frameTouched) {
+            for (int i = 0; i < lastTouchedCount; i++) {
+                int id = lastTouched[i];
+                lastDurations[id] = 0;
+                lastAllocs[id] = 0;
+                lastCounts[id] = 0;
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                int id = touched[i];
+                frameDurations[id] += durations[id];
+                frameAllocations[id] += allocs[id];
+                frameTouched[id] = true;
+            }
+
+            long[] swapDurations = lastDurations;
+            lastDurations = durations;
+            durations = swapDurations;
+            long[] swapAllocs = lastAllocs;
+            lastAllocs = allocs;
+            allocs = swapAllocs;
+            int[] swapCounts = lastCounts;
+            lastCounts = counts;
+            counts = swapCounts;
+            int[] swapParents = lastParents;
+            lastParents = parents;
+            parents = swapParents;
+            int[] swapTouched = lastTouched;
+            lastTouched = touched;
+            touched = swapTouched;
+            lastTouchedCount = touchedCount;
+            touchedCount = 0;
+        }
+
+        /**
+         * 返回该线程自上次采样以来分配的字节数
+         */
+        long sampleAllocated(com.sun.management.ThreadMXBean threadBean) {
+            long allocated = threadBean.getThreadAllocatedBytes(threadId);
+            if (allocated < 0) return 0;
+            long delta = allocatedMark >= 0 ? allocated - allocatedMark : 0;
+            allocatedMark = allocated;
+            return delta;
+        }
+
+        /**
+         * 按层级深度优先收集上一帧的作用域
+         */
+        void collect(int parent, int level, String[] names, List<ThreadScope> out) {
+            for (int i = 0; i < lastTouchedCount; i++) {
+                int id = lastTouched[i];
+                if (lastParents[id] != parent || id == parent || level > MAX_DEPTH) continue;
+                out.add(new ThreadScope(threadName, threadId, names[id],
+                    parent >= 0 ? names[parent] : null, level, lastDurations[id], lastAllocs[id], lastCounts[id]));
+                collect(id, level + 1, names, out);
+            }
+        }
+    }
+
+    /**
+     * 某个线程上一帧在某个区域的耗时
+     */
+    public static class ThreadScope {
+        public final String threadName;
+        public final long threadId;
+        public final String section;
+        public final String parent;   // 父区域，顶层为null
+        public final int depth;
+        public final long duration;   // 纳秒
+        public final long allocatedBytes;
+        public final int count;       // 本帧计时次数
+
+        public ThreadScope(String threadName, long threadId, String section, String parent,
+                           int depth, long duration, long allocatedBytes, int count) {
+            this.threadName = threadName;
+            this.threadId = threadId;
+            this.section = section;
+            this.parent = parent;
+            this.depth = depth;
+            this.duration = duration;
+            this.allocatedBytes = allocatedBytes;
+            this.count = count;
+        }
+
+        public double getMs() {
+            return duration / 1_000_000.0;
+        }
+    }
+
     /**
      * 性能数据类
      */
@@ -186,6 +862,11 @@ public class Profiler {
         public long avgDuration;   // 平均时间（纳秒）
         public long maxDuration;   // 最大时间（纳秒）
         public long minDuration;   // 最小时间（纳秒）
+        public long p50Duration;   // 中位数（纳秒）
+        public long p95Duration;   // 95百分位（纳秒）
+        public long p99Duration;   // 99百分位（纳秒）
+        public long lastAllocatedBytes; // 最近一帧分配的字节数
+        public long avgAllocatedBytes;  // 平均每帧分配的字节数
 
         public double getLastMs() {
             return lastDuration / 1_000_000.0;
@@ -202,5 +883,21 @@ public class Profiler {
         public double getMinMs() {
             return minDuration / 1_000_000.0;
         }
+
+        public double getP50Ms() {
+            return p50Duration / 1_000_000.0;
+        }
+
+        public double getP95Ms() {
+            return p95Duration / 1_000_000.0;
+        }
+
+        public double getP99Ms() {
+            return p99Duration / 1_000_000.0;
+        }
+
+        public double getAvgAllocatedKB() {
+            return avgAllocatedBytes / 1024.0;
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.gameengine.util;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 性能追踪缓冲区：捕获期间把每个作用域记录为一个完整事件，
+ * 数组在创建时一次分配好，记录时不产生垃圾，写满后丢弃后续事件
+ */
+final class TraceBuffer {
+    static final int FRAME_MARKER = -1;
+
+    private final long[] starts;
+    private final long[] durations;
+    private final int[] sections;
+    private final long[] threadIds;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private long origin;
+
+    TraceBuffer(int capacity) {
+        this.starts = new long[capacity];
+        this.durations = new long[capacity];
+        this.sections = new int[capacity];
+        this.threadIds = new long[capacity];
+    }
+
+    void reset(long origin) {
+        this.origin = origin;
+        size.set(0);
+        dropped.set(0);
+    }
+
+    /**
+     * 记录一个作用域，可在多个线程中同时调用
+     */
+    void record(int section, long start, long end, long threadId) {
+        int index = size.getAndIncrement();
+        if (index >= starts.length) {
+            dropped.incrementAndGet();
+            return;
+        }
+        starts[index] = start;
+        durations[index] = end - start;
+        sections[index] = section;
+        threadIds[index] = threadId;
+    }
+
+    int getSize() {
+        return Math.min(size.get(), starts.length);
+    }
+
+    int getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 以 Chrome Trace Event 格式写出，可在 chrome://tracing 或 Perfetto 中打开
+     */
+    void writeJson(String filepath, String[] names, Map<Long, String> threadNames) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(filepath))) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            boolean first = true;
+            for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                if (!first) out.write(",\n");
+                first = false;
+                out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey()
+                    + ",\"args\":{\"name\":\"" + escape(thread.getValue()) + "\"}}");
+            }
+
+            int count = getSize();
+            int frame = 0;
+            for (int i = 0; i < count; i++) {
+                if (!first) out.write(",\n");
+                first = false;
+                String ts = micros(starts[i] - origin);
+                if (sections[i] == FRAME_MARKER) {
+                    out.write("{\"name\":\"Frame " + frame++ + "\",\"ph\":\"i\",\"s\":\"g\",\"pid\":1,\"tid\":"
+                        + threadIds[i] + ",\"ts\":" + ts + "}");
+                } else {
+                    out.write("{\"name\":\"" + escape(names[sections[i]]) + "\",\"ph\":\"X\",\"pid\":1,\"tid\":"
+                        + threadIds[i] + ",\"ts\":" + ts + ",\"dur\":" + micros(durations[i]) + "}");
+                }
+            }
+            out.write("\n]}\n");
+        }
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
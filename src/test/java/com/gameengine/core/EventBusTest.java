@@ -0,0 +1,110 @@
+package com.gameengine.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 事件总线的分发顺序：类型按订阅顺序，同类型事件按发布顺序，监听器按订阅顺序
+ */
+class EventBusTest {
+
+    static final class Hit {
+        final int id;
+
+        Hit(int id) {
+            this.id = id;
+        }
+    }
+
+    static final class Kill {
+        final int id;
+
+        Kill(int id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    void batchesArriveInPublishOrder() {
+        EventBus bus = new EventBus();
+        List<String> log = new ArrayList<>();
+        bus.subscribe(Hit.class, batch -> {
+            StringBuilder ids = new StringBuilder("first:");
+            for (Hit hit : batch) {
+                ids.append(hit.id);
+            }
+            log.add(ids.toString());
+        });
+        bus.subscribeEach(Hit.class, hit -> log.add("each:" + hit.id));
+
+        bus.publish(new Hit(1));
+        bus.publish(new Hit(2));
+        bus.publish(new Hit(3));
+        assertTrue(log.isEmpty(), "dispatch() 之前不送达");
+
+        bus.dispatch();
+        assertEquals(Arrays.asList("first:123", "each:1", "each:2", "each:3"), log);
+    }
+
+    @Test
+    void typesDispatchInSubscriptionOrder() {
+        EventBus bus = new EventBus();
+        List<String> log = new ArrayList<>();
+        bus.subscribeEach(Kill.class, kill -> log.add("kill:" + kill.id));
+        bus.subscribeEach(Hit.class, hit -> log.add("hit:" + hit.id));
+
+        bus.publish(new Hit(1));
+        bus.publish(new Kill(2));
+        bus.publish(new Hit(3));
+        bus.dispatch();
+        assertEquals(Arrays.asList("kill:2", "hit:1", "hit:3"), log);
+    }
+
+    @Test
+    void eventsPublishedDuringDispatchGoToNextBatch() {
+        EventBus bus = new EventBus();
+        List<Integer> received = new ArrayList<>();
+        bus.subscribeEach(Hit.class, hit -> {
+            received.add(hit.id);
+            if (hit.id < 3) {
+                bus.publish(new Hit(hit.id + 1));
+            }
+        });
+
+        bus.publish(new Hit(1));
+        bus.dispatch();
+        assertEquals(Collections.singletonList(1), received);
+        bus.dispatch();
+        bus.dispatch();
+        assertEquals(Arrays.asList(1, 2, 3), received);
+        assertEquals(3, bus.getPublishedCount());
+        assertEquals(3, bus.getDispatchedCount());
+    }
+
+    @Test
+    void unsubscribedAndClearedEventsAreDropped() {
+        EventBus bus = new EventBus();
+        List<Integer> received = new ArrayList<>();
+        bus.publish(new Hit(0)); // 还没有监听器
+        bus.subscribeEach(Hit.class, hit -> received.add(hit.id));
+        bus.publish(new Kill(1));
+
+        bus.publish(new Hit(2));
+        bus.clearPending();
+        bus.dispatch();
+        assertTrue(received.isEmpty());
+        assertEquals(1, bus.getPublishedCount());
+        assertEquals(0, bus.getDispatchedCount());
+
+        bus.publish(new Hit(3));
+        bus.dispatch();
+        assertEquals(Collections.singletonList(3), received);
+    }
+}
@@ -0,0 +1,118 @@
+package com.gameengine.core;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对象池的取出、回收和重置
+ */
+class GameObjectPoolTest {
+
+    private static GameObject newBullet() {
+        GameObject bullet = new GameObject("Bullet");
+        bullet.addComponent(new TransformComponent());
+        bullet.addComponent(new PhysicsComponent(1f));
+        return bullet;
+    }
+
+    @Test
+    void releasedObjectIsReusedAndReset() {
+        GameObjectPool pool = new GameObjectPool("Bullet", GameObjectPoolTest::newBullet);
+        GameObject bullet = pool.acquire();
+        assertSame(pool, bullet.getPool());
+        assertEquals(1, pool.getMisses());
+
+        bullet.getComponent(TransformComponent.class).setPosition(new Vector2(5, 6));
+        bullet.getComponent(PhysicsComponent.class).setVelocity(3, 4);
+        bullet.destroy();
+        assertNull(bullet.getComponent(TransformComponent.class));
+        pool.release(bullet);
+        assertEquals(1, pool.getFreeCount());
+
+        GameObject reused = pool.acquire();
+        assertSame(bullet, reused);
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getFreeCount());
+        assertTrue(reused.isActive());
+        TransformComponent transform = reused.getComponent(TransformComponent.class);
+        assertNotNull(transform, "销毁时暂存的组件在取出时恢复");
+        assertEquals(0, transform.getPosition().x);
+        assertEquals(0, transform.getPosition().y);
+        assertEquals(0, reused.getComponent(PhysicsComponent.class).getVelocity().x);
+        assertEquals(0, reused.getComponent(PhysicsComponent.class).getVelocity().y);
+    }
+
+    @Test
+    void repeatedOrForeignReleaseIsIgnored() {
+        GameObjectPool pool = new GameObjectPool("Bullet", GameObjectPoolTest::newBullet);
+        GameObjectPool other = new GameObjectPool("Other", GameObjectPoolTest::newBullet);
+        GameObject bullet = pool.acquire();
+
+        pool.release(bullet);
+        pool.release(bullet);
+        other.release(bullet);
+        pool.release(new GameObject("Plain"));
+        assertEquals(1, pool.getReleases());
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(0, other.getFreeCount());
+
+        assertSame(bullet, pool.acquire());
+        assertNotSame(bullet, pool.acquire(), "同一对象不能被取出两次");
+    }
+
+    @Test
+    void fullPoolDropsObject() {
+        GameObjectPool pool = new GameObjectPool("Bullet", GameObjectPoolTest::newBullet, 1);
+        GameObject first = pool.acquire();
+        GameObject second = pool.acquire();
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(1, pool.getDropped());
+        assertNull(second.getPool(), "丢弃的对象不再属于对象池");
+
+        pool.release(second);
+        assertEquals(2, pool.getReleases());
+    }
+
+    @Test
+    void prewarmedObjectsAreHits() {
+        GameObjectPool pool = new GameObjectPool("Bullet", GameObjectPoolTest::newBullet, 4);
+        pool.prewarm(8);
+        assertEquals(4, pool.getFreeCount());
+
+        for (int i = 0; i < 4; i++) {
+            pool.acquire();
+        }
+        assertEquals(4, pool.getHits());
+        assertEquals(0, pool.getMisses());
+        assertEquals(1.0, pool.getHitRate());
+    }
+
+    @Test
+    void sceneRecyclesDestroyedObjects() {
+        Scene scene = new Scene("PoolScene");
+        GameObjectPool pool = new GameObjectPool("Bullet", GameObjectPoolTest::newBullet);
+        GameObject bullet = pool.acquire();
+        scene.addGameObject(bullet);
+        scene.update(0f);
+        assertEquals(1, scene.getObjectCount());
+
+        bullet.destroy();
+        scene.update(0f);
+        assertEquals(0, scene.getObjectCount());
+        assertEquals(1, pool.getFreeCount());
+        assertSame(bullet, pool.acquire());
+    }
+}
@@ -0,0 +1,59 @@
+package com.gameengine.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchReplayRunnerTest {
+    private static final int FILES = 4;
+
+    @TempDir
+    Path dir;
+
+    private List<String> recordFiles() {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            Path file = dir.resolve("replay" + i + ".dat");
+            RecordingFixture.record(file, i * 15, 300, i);
+            files.add(file.toString());
+        }
+        return files;
+    }
+
+    @Test
+    void resultsKeepInputOrder() {
+        List<String> files = recordFiles();
+        List<ReplayRunner.Result> results = BatchReplayRunner.runAll(files, 2);
+
+        assertEquals(FILES, results.size());
+        for (int i = 0; i < FILES; i++) {
+            assertEquals(files.get(i), results.get(i).file);
+            assertTrue(results.get(i).isOk(), results.get(i).toString());
+        }
+    }
+
+    /**
+     * 中断后每个录制仍有一个结果：已完成的正常报告，其余记为中断，调用方的中断标志保持设置
+     */
+    @Test
+    void interruptReportsPartialResults() {
+        List<String> files = recordFiles();
+        Thread.currentThread().interrupt();
+        List<ReplayRunner.Result> results = BatchReplayRunner.runAll(files, 1);
+        assertTrue(Thread.interrupted(), "中断标志应被恢复");
+
+        assertEquals(FILES, results.size());
+        for (int i = 0; i < FILES; i++) {
+            ReplayRunner.Result result = results.get(i);
+            assertEquals(files.get(i), result.file);
+            assertTrue(result.isOk() || "回放被中断，未完成".equals(result.error), result.toString());
+        }
+        assertTrue(results.stream().anyMatch(result -> result.error != null));
+    }
+}
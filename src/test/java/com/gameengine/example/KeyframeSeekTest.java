@@ -0,0 +1,65 @@
+package com.gameengine.example;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.input.InputManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 跳转到关键帧后的状态与录制时该帧的状态相同，之后逐帧模拟的哈希也与录制一致
+ */
+class KeyframeSeekTest {
+    private static final int TICKS = 2000;
+    private static final int CHECK_TICKS = 240;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyKeyframeRestoresRecordedState() {
+        Path file = dir.resolve("seek.dat");
+        RecordingFixture.record(file, 45, TICKS, 7);
+
+        GameEngine engine = RecordingFixture.newEngine();
+        try {
+            engine.start();
+            engine.startReplay(file.toString(), new GameScene(engine));
+            InputManager input = engine.getInputManager();
+            assertTrue(input.isReplaying());
+
+            List<Long> keyframeTimes = new ArrayList<>();
+            long time = input.getRecordingDuration();
+            while (time >= 0) {
+                long keyframeTime = input.findKeyframeTime(time);
+                if (keyframeTime < 0) break;
+                keyframeTimes.add(keyframeTime);
+                time = keyframeTime - 1;
+            }
+            assertTrue(keyframeTimes.size() >= 10, "关键帧数量 " + keyframeTimes.size());
+
+            // 从后往前跳转，每次都恢复关键帧而不是从当前位置继续模拟
+            for (long keyframeTime : keyframeTimes) {
+                assertTrue(engine.seekReplay(keyframeTime));
+                long tick = input.getTick();
+                if (tick > 0) {
+                    assertEquals(input.getRecordedStateHash(tick - 1), engine.getCurrentScene().computeStateHash(),
+                        keyframeTime + "ms 关键帧恢复后的状态");
+                }
+                for (int i = 0; i < CHECK_TICKS && input.getTick() + 1 < input.getRecordedTickCount(); i++) {
+                    engine.step();
+                }
+                assertEquals(-1, input.getDivergenceTick(), keyframeTime + "ms 关键帧之后首次不一致的帧");
+            }
+        } finally {
+            engine.stop();
+            engine.cleanup();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameengine.example;
+
+import com.gameengine.components.HealthComponent;
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.input.InputManager;
+import com.gameengine.util.Profiler;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 测试用录制：在无窗口的确定性引擎上运行 GameScene，先运行若干帧（相当于游戏中途按 R），
+ * 再用固定种子生成的键盘和鼠标输入录制指定帧数
+ */
+final class RecordingFixture {
+    private static final int[] KEYS = {87, 83, 65, 68, 32}; // W S A D 空格
+
+    private RecordingFixture() {
+    }
+
+    /**
+     * 与 ReplayRunner 相同配置的无窗口引擎，使用独立的输入和分析器上下文
+     */
+    static GameEngine newEngine() {
+        GameEngine engine = new GameEngine(800, 600, "Test", RenderBackend.HEADLESS,
+            new InputManager(), new Profiler());
+        engine.getWatchdog().setEnabled(false);
+        engine.getQualityController().setEnabled(false);
+        engine.setDeterministic(true);
+        return engine;
+    }
+
+    /**
+     * 运行一帧加上 warmupTicks 帧后开始录制，再录制 ticks 帧并保存到 file
+     */
+    static void record(Path file, int warmupTicks, int ticks, long inputSeed) {
+        GameEngine engine = newEngine();
+        try {
+            engine.setScene(new GameScene(engine));
+            engine.start();
+            engine.step(); // 初始对象在第一帧加入场景
+            keepPlayerAlive(engine);
+            InputManager input = engine.getInputManager();
+            Random random = new Random(inputSeed);
+            for (int i = 0; i < warmupTicks; i++) {
+                feedInput(input, random, i);
+                engine.step();
+            }
+            input.setKeyframeInterval(1000); // 跳转测试需要更多关键帧
+            engine.startRecording();
+            for (int i = 0; i < ticks; i++) {
+                feedInput(input, random, warmupTicks + i);
+                engine.step();
+            }
+            input.stopRecording();
+            input.saveRecording(file.toString(), engine.getCurrentScene().getScore());
+        } finally {
+            engine.stop();
+            engine.cleanup();
+        }
+    }
+
+    /**
+     * 玩家生命值足够撑过整个录制，否则游戏结束后状态不再变化，测试失去意义
+     */
+    private static void keepPlayerAlive(GameEngine engine) {
+        GameObject player = engine.getCurrentScene().findGameObjectByName("Player");
+        HealthComponent health = player.getComponent(HealthComponent.class);
+        health.setMaxHealth(1_000_000);
+        health.heal(1_000_000);
+    }
+
+    private static void feedInput(InputManager input, Random random, int tick) {
+        if (tick % 7 == 0) {
+            int key = KEYS[random.nextInt(KEYS.length)];
+            if (random.nextBoolean()) {
+                input.onKeyPressed(key);
+            } else {
+                input.onKeyReleased(key);
+            }
+        }
+        if (tick % 3 == 0) {
+            input.onMouseMoved(random.nextFloat() * 800, random.nextFloat() * 600);
+        }
+        if (tick % 50 == 0) {
+            input.onMousePressed(0);
+        } else if (tick % 50 == 10) {
+            input.onMouseReleased(0);
+        }
+    }
+}
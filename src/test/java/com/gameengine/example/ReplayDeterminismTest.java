@@ -0,0 +1,39 @@
+package com.gameengine.example;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 确定性录制无窗口回放后，每帧状态哈希都与录制时一致
+ */
+class ReplayDeterminismTest {
+    private static final int TICKS = 2000;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 游戏中途开始录制时起始状态来自关键帧而不是新场景；
+     * 开始的帧号奇偶都要覆盖，隔帧决策的对象在两种情况下恢复后的行为不同
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 15, 30, 45, 75, 225})
+    void recordingStartedMidSessionReplaysExactly(int warmupTicks) {
+        Path file = dir.resolve("warmup" + warmupTicks + ".dat");
+        RecordingFixture.record(file, warmupTicks, TICKS, 42);
+
+        ReplayRunner.Result result = ReplayRunner.run(file.toString());
+        assertNull(result.error);
+        assertTrue(result.deterministic);
+        assertEquals(TICKS, result.ticks);
+        assertEquals(-1, result.divergenceTick, "首次不一致的帧");
+        assertEquals(result.expectedHash, result.finalHash);
+    }
+}
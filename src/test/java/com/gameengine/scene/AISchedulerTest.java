@@ -0,0 +1,132 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AI 调度器的时间片、轮转顺序、距离间隔和锁定
+ */
+class AISchedulerTest {
+
+    static class Agent extends GameObject implements AIAgent {
+        int thinks;
+
+        Agent(float x, float y) {
+            super("Agent");
+            addComponent(new TransformComponent(new Vector2(x, y)));
+        }
+
+        @Override
+        public void think() {
+            thinks++;
+            // 保证每次决策至少经过一个时钟刻度，时间片为0时每次检查都超时
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private Scene scene;
+    private AIScheduler scheduler;
+    private final List<Agent> agents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        scene = new Scene("AIScene");
+        scheduler = scene.getAIScheduler();
+    }
+
+    private void addAgents(int count, float x, float y) {
+        for (int i = 0; i < count; i++) {
+            Agent agent = new Agent(x, y);
+            agents.add(agent);
+            scheduler.register(agent);
+        }
+    }
+
+    @Test
+    void everyAgentThinksEachFrameWithinSlice() {
+        addAgents(20, 0, 0);
+        scheduler.setSliceNanos(Long.MAX_VALUE / 2);
+        for (int frame = 0; frame < 3; frame++) {
+            scheduler.beginFrame();
+            assertEquals(20, scheduler.getThinksLastFrame());
+            assertEquals(0, scheduler.getDeferredLastFrame());
+        }
+        for (Agent agent : agents) {
+            assertEquals(3, agent.thinks);
+        }
+    }
+
+    /**
+     * 时间片用完后剩余对象顺延，下一帧从中断的位置继续，所有对象轮流决策
+     */
+    @Test
+    void exhaustedSliceDefersRemainingAgentsRoundRobin() {
+        addAgents(20, 0, 0);
+        scheduler.setSliceNanos(0);
+
+        scheduler.beginFrame();
+        assertEquals(8, scheduler.getThinksLastFrame()); // 每处理 8 个对象检查一次时间
+        assertEquals(12, scheduler.getDeferredLastFrame());
+        for (int i = 0; i < agents.size(); i++) {
+            assertEquals(i < 8 ? 1 : 0, agents.get(i).thinks, "对象 " + i);
+        }
+
+        // 第二帧 8-15，第三帧 16-19 后回到 0-3
+        scheduler.beginFrame();
+        scheduler.beginFrame();
+        for (int i = 0; i < agents.size(); i++) {
+            assertEquals(i < 4 ? 2 : 1, agents.get(i).thinks, "对象 " + i);
+        }
+    }
+
+    @Test
+    void distantAndOffscreenAgentsThinkLessOften() {
+        GameObject player = new GameObject("Player");
+        player.addComponent(new TransformComponent(new Vector2(0, 0)));
+        scene.addGameObject(player);
+        scene.update(0f);
+        scheduler.setFocusName("Player");
+        scheduler.setLod(100f, 3, 5);
+        scheduler.setSliceNanos(Long.MAX_VALUE / 2);
+
+        addAgents(1, 10, 10);
+        addAgents(1, 500, 500);
+        for (int frame = 0; frame < 30; frame++) {
+            scheduler.beginFrame();
+        }
+        assertEquals(30, agents.get(0).thinks);
+        assertEquals(10, agents.get(1).thinks);
+    }
+
+    @Test
+    void lockedSchedulerLeavesThinkingToAgents() {
+        addAgents(5, 0, 0);
+        scheduler.setLocked(true);
+        scheduler.beginFrame();
+        assertEquals(0, scheduler.getThinksLastFrame());
+        for (Agent agent : agents) {
+            assertEquals(0, agent.thinks);
+        }
+    }
+
+    @Test
+    void removedAgentsStopThinking() {
+        addAgents(3, 0, 0);
+        scheduler.setSliceNanos(Long.MAX_VALUE / 2);
+        scheduler.onRemoved(agents.get(1));
+        scheduler.beginFrame();
+        assertEquals(2, scheduler.getAgentCount());
+        assertEquals(0, agents.get(1).thinks);
+    }
+}
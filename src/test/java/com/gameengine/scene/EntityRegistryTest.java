@@ -0,0 +1,106 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.GameObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按名称和标签的索引随添加和移除保持与场景列表一致
+ */
+class EntityRegistryTest {
+
+    private static GameObject tagged(String name, String... tags) {
+        GameObject obj = new GameObject(name);
+        for (String tag : tags) {
+            obj.addTag(tag);
+        }
+        return obj;
+    }
+
+    @Test
+    void lookupKeepsInsertionOrder() {
+        EntityRegistry registry = new EntityRegistry();
+        GameObject a = tagged("Enemy", "hostile");
+        GameObject b = tagged("Player");
+        GameObject c = tagged("Enemy", "hostile", "boss");
+        registry.add(a);
+        registry.add(b);
+        registry.add(c);
+
+        assertSame(a, registry.first("Enemy"));
+        assertEquals(Arrays.asList(a, c), registry.withName("Enemy"));
+        assertEquals(Arrays.asList(a, c), registry.withTag("hostile"));
+        assertEquals(Collections.singletonList(c), registry.withTag("boss"));
+        assertNull(registry.first("Missing"));
+        assertTrue(registry.withName("Missing").isEmpty());
+    }
+
+    @Test
+    void removeSingleAndBatch() {
+        EntityRegistry registry = new EntityRegistry();
+        List<GameObject> enemies = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            GameObject enemy = tagged("Enemy", "hostile");
+            enemies.add(enemy);
+            registry.add(enemy);
+        }
+        GameObject player = tagged("Player", "hostile");
+        registry.add(player);
+
+        registry.removeAll(Collections.singletonList(enemies.get(0)));
+        assertEquals(enemies.subList(1, 6), registry.withName("Enemy"));
+
+        registry.removeAll(Arrays.asList(enemies.get(2), player, enemies.get(4)));
+        assertEquals(Arrays.asList(enemies.get(1), enemies.get(3), enemies.get(5)), registry.withName("Enemy"));
+        assertEquals(Arrays.asList(enemies.get(1), enemies.get(3), enemies.get(5)), registry.withTag("hostile"));
+        assertNull(registry.first("Player"));
+    }
+
+    /**
+     * 视图是只读的，并且随后续的添加和清空更新
+     */
+    @Test
+    void viewsAreLiveAndReadOnly() {
+        EntityRegistry registry = new EntityRegistry();
+        List<GameObject> view = registry.withName("Bullet");
+        GameObject bullet = tagged("Bullet");
+        registry.add(bullet);
+
+        assertEquals(Collections.singletonList(bullet), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(bullet));
+        registry.clear();
+        assertTrue(view.isEmpty());
+    }
+
+    @Test
+    void sceneIndexFollowsAddAndRemove() {
+        Scene scene = new Scene("RegistryScene");
+        GameObject first = tagged("Enemy", "hostile");
+        GameObject second = tagged("Enemy", "hostile");
+        scene.addGameObject(first);
+        scene.addGameObject(second);
+        assertNull(scene.findGameObjectByName("Enemy"), "下一帧才加入场景");
+
+        scene.update(0f);
+        assertEquals(Arrays.asList(first, second), scene.getGameObjectsByName("Enemy"));
+
+        first.destroy();
+        scene.update(0f);
+        assertSame(second, scene.findGameObjectByName("Enemy"));
+        assertEquals(Collections.singletonList(second), scene.findGameObjectsByTag("hostile"));
+
+        scene.removeGameObject(second);
+        scene.update(0f);
+        assertTrue(scene.getGameObjectsByName("Enemy").isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package com.gameengine.scene;
+
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * 快照保存并恢复标准组件状态，以及对象和组件通过钩子自行保存的状态
+ */
+class SceneSnapshotTest {
+
+    /**
+     * 带私有计时器的组件
+     */
+    static class TimerComponent extends Component<TimerComponent> {
+        private float remaining;
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            remaining -= deltaTime;
+        }
+
+        @Override
+        public void render() {
+        }
+
+        @Override
+        public void captureSnapshotState(SceneSnapshot.EntityState state) {
+            state.putFloat("TimerComponent.remaining", remaining);
+        }
+
+        @Override
+        public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+            remaining = state.getFloat("TimerComponent.remaining", 0);
+        }
+    }
+
+    /**
+     * 带缓存决策的对象
+     */
+    static class Walker extends GameObject {
+        int heading;
+
+        Walker() {
+            super("Walker");
+            addComponent(new TransformComponent());
+            addComponent(new PhysicsComponent(1f));
+            addComponent(new HealthComponent(5));
+            addComponent(new TimerComponent());
+        }
+
+        @Override
+        public void captureSnapshotState(SceneSnapshot.EntityState state) {
+            super.captureSnapshotState(state);
+            state.putInt("heading", heading);
+        }
+
+        @Override
+        public void restoreSnapshotState(SceneSnapshot.EntityState state) {
+            super.restoreSnapshotState(state);
+            heading = state.getInt("heading", 0);
+        }
+    }
+
+    static class WalkerScene extends Scene {
+        WalkerScene() {
+            super("WalkerScene");
+        }
+
+        @Override
+        protected GameObject createFromSnapshot(SceneSnapshot.EntityState state) {
+            return new Walker();
+        }
+    }
+
+    @Test
+    void hooksRestorePrivateState() {
+        WalkerScene scene = new WalkerScene();
+        Walker walker = new Walker();
+        walker.heading = 3;
+        walker.getComponent(TransformComponent.class).setPosition(new Vector2(10, 20));
+        walker.getComponent(PhysicsComponent.class).setVelocity(1, 2);
+        walker.getComponent(PhysicsComponent.class).applyForce(new Vector2(4, 8));
+        HealthComponent health = walker.getComponent(HealthComponent.class);
+        health.setMaxHealth(12);
+        health.heal(12);
+        health.takeDamage(5);
+        walker.getComponent(TimerComponent.class).remaining = 1.25f;
+        scene.addGameObject(walker);
+        scene.update(0f); // 加入场景
+        long hash = scene.computeStateHash();
+
+        WalkerScene restoredScene = new WalkerScene();
+        restoredScene.restoreSnapshot(scene.captureSnapshot());
+        assertEquals(hash, restoredScene.computeStateHash());
+
+        Walker restored = (Walker) restoredScene.findGameObjectByName("Walker");
+        assertNotSame(walker, restored);
+        assertEquals(3, restored.heading);
+        assertEquals(1.25f, restored.getComponent(TimerComponent.class).remaining);
+        assertEquals(12, restored.getComponent(HealthComponent.class).getMaxHealth());
+        assertEquals(7, restored.getComponent(HealthComponent.class).getCurrentHealth());
+        Vector2 acceleration = restored.getComponent(PhysicsComponent.class).getAcceleration();
+        assertEquals(walker.getComponent(PhysicsComponent.class).getAcceleration().x, acceleration.x);
+        assertEquals(walker.getComponent(PhysicsComponent.class).getAcceleration().y, acceleration.y);
+    }
+
+    @Test
+    void pendingObjectsStayPending() {
+        WalkerScene scene = new WalkerScene();
+        scene.addGameObject(new Walker());
+        scene.update(0f);
+        Walker removing = (Walker) scene.findGameObjectByName("Walker");
+        scene.removeGameObject(removing);
+        scene.addGameObject(new Walker());
+
+        WalkerScene restoredScene = new WalkerScene();
+        restoredScene.restoreSnapshot(scene.captureSnapshot());
+        assertEquals(scene.computeStateHash(), restoredScene.computeStateHash());
+        assertEquals(1, restoredScene.getGameObjects().size());
+
+        scene.update(0f);
+        restoredScene.update(0f);
+        assertEquals(1, restoredScene.getGameObjects().size());
+        assertEquals(scene.computeStateHash(), restoredScene.computeStateHash());
+    }
+}
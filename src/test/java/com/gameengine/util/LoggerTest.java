@@ -0,0 +1,66 @@
+package com.gameengine.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 同一模板按秒限流，不同模板互不影响
+ */
+class LoggerTest {
+    private final Logger log = Logger.getInstance();
+
+    @AfterEach
+    void restoreDefaults() {
+        log.setMaxPerSecond(20);
+        log.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    void repeatedTemplateIsRateLimited() {
+        log.setMaxPerSecond(5);
+        log.flush();
+        long before = log.getSuppressedCount();
+
+        for (int i = 0; i < 50; i++) {
+            log.info("LoggerTest 限流 %d", i);
+        }
+        log.flush();
+        long suppressed = log.getSuppressedCount() - before;
+
+        // 写入期间最多跨过一次一秒的窗口边界，此时多放行一个窗口的条数
+        assertTrue(suppressed == 45 || suppressed == 40, "省略 " + suppressed + " 条");
+    }
+
+    @Test
+    void otherTemplatesAreNotLimited() {
+        log.setMaxPerSecond(5);
+        for (int i = 0; i < 20; i++) {
+            log.info("LoggerTest 占满 %d", i);
+        }
+        log.flush();
+        long before = log.getSuppressedCount();
+
+        for (int i = 0; i < 5; i++) {
+            log.info("LoggerTest 其他模板 %d", i);
+        }
+        log.flush();
+        assertEquals(before, log.getSuppressedCount());
+    }
+
+    @Test
+    void messagesBelowLevelAreNotCounted() {
+        log.setMaxPerSecond(1);
+        log.setLevel(Logger.Level.WARN);
+        log.flush();
+        long before = log.getSuppressedCount();
+
+        for (int i = 0; i < 10; i++) {
+            log.info("LoggerTest 低级别 %d", i);
+        }
+        log.flush();
+        assertEquals(before, log.getSuppressedCount(), "低于级别的消息不进入缓冲区");
+    }
+}
@@ -0,0 +1,72 @@
+package com.gameengine.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfilerTest {
+
+    @Test
+    void allocationTrackingIsOptIn() {
+        Profiler profiler = new Profiler();
+        assertFalse(profiler.isAllocationTracking());
+
+        int section = profiler.section("Work");
+        profiler.begin(section);
+        profiler.end(section);
+        profiler.endFrame();
+        assertEquals(0, profiler.getStats(section).lastAllocatedBytes);
+    }
+
+    /**
+     * 有序数组逐个替换最旧的值后，与环形缓冲区排序的结果相同
+     */
+    @Test
+    void sortedHistoryMatchesSortedRing() {
+        Random random = new Random(3);
+        long[] ring = new long[60];
+        long[] sorted = new long[60];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = random.nextInt(20);
+        }
+        System.arraycopy(ring, 0, sorted, 0, ring.length);
+        Arrays.sort(sorted);
+
+        for (int i = 0; i < 5000; i++) {
+            int head = i % ring.length;
+            long added = random.nextInt(20); // 取值范围小，覆盖重复值
+            Profiler.replaceSorted(sorted, ring.length, ring[head], added);
+            ring[head] = added;
+
+            long[] expected = ring.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, sorted, "第 " + i + " 次替换");
+        }
+    }
+
+    @Test
+    void statsOrderedAfterWindowWraps() {
+        Profiler profiler = new Profiler();
+        int section = profiler.section("Work");
+        for (int frame = 0; frame < 150; frame++) {
+            profiler.begin(section);
+            profiler.end(section);
+            profiler.endFrame();
+        }
+
+        Profiler.ProfileData data = profiler.getStats(section);
+        assertNotNull(data);
+        assertTrue(data.minDuration <= data.p50Duration);
+        assertTrue(data.p50Duration <= data.p95Duration);
+        assertTrue(data.p95Duration <= data.p99Duration);
+        assertTrue(data.p99Duration <= data.maxDuration);
+        assertTrue(data.minDuration <= data.avgDuration && data.avgDuration <= data.maxDuration);
+    }
+}